@@ -0,0 +1,43 @@
+package com.vinodh.security.jwt.benchmarks;
+
+import com.vinodh.security.jwt.model.Role;
+import com.vinodh.security.jwt.model.User;
+
+import java.lang.reflect.Field;
+
+/**
+ * Wiring helpers for benchmarks that build application components without a Spring context.
+ * The components use field injection, so their collaborators and settings are set reflectively.
+ */
+public final class BenchmarkSupport {
+
+    private BenchmarkSupport() {
+    }
+
+    public static void inject(Object target, String fieldName, Object value) {
+        for (Class<?> type = target.getClass(); type != null; type = type.getSuperclass()) {
+            try {
+                Field field = type.getDeclaredField(fieldName);
+                field.setAccessible(true);
+                field.set(target, value);
+                return;
+            } catch (NoSuchFieldException ignored) {
+                // declared further up the hierarchy
+            } catch (IllegalAccessException ex) {
+                throw new IllegalStateException("Cannot set " + fieldName + " on " + type.getName(), ex);
+            }
+        }
+        throw new IllegalArgumentException("No field " + fieldName + " on " + target.getClass().getName());
+    }
+
+    public static User sampleUser() {
+        User user = new User();
+        user.setId(42);
+        user.setFirstName("Bench");
+        user.setLastName("Mark");
+        user.setEmail("bench.user@example.com");
+        user.setRole(Role.USER);
+        user.setPassword("$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z6z1uZ1fP0wXo5C6n1aYqQ9K");
+        return user;
+    }
+}
@@ -0,0 +1,126 @@
+package com.vinodh.security.jwt.config;
+
+import com.vinodh.security.jwt.benchmarks.BenchmarkSupport;
+import com.vinodh.security.jwt.metrics.AuthMetrics;
+import com.vinodh.security.jwt.model.User;
+import com.vinodh.security.jwt.model.VerifiedToken;
+import com.vinodh.security.jwt.service.IAccessTokenRevocationService;
+import com.vinodh.security.jwt.service.IJwtService;
+import com.vinodh.security.jwt.service.IUserService;
+import com.vinodh.security.jwt.service.impl.AuditServiceImpl;
+import com.vinodh.security.jwt.service.impl.JwtFixtures;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One pass of {@link JwtAuthenticationFilter#doFilterInternal} per invocation, with the user
+ * service and revocation check stubbed in memory, so the figures are the filter's own CPU and
+ * allocation cost: header handling, verification, principal/authority construction and, for bad
+ * tokens, the error response.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    @Param({"false", "true"})
+    public boolean statelessAuth;
+
+    // malformed fails the structural check; badSignature is well-formed and reaches signature verification
+    @Param({"valid", "malformed", "badSignature", "none"})
+    public String token;
+
+    private JwtAuthenticationFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private final FilterChain chain = (req, res) -> { };
+
+    @Setup
+    public void setUp() {
+        User user = BenchmarkSupport.sampleUser();
+        IJwtService jwtService = JwtFixtures.jwtService(false, statelessAuth);
+
+        filter = new JwtAuthenticationFilter();
+        BenchmarkSupport.inject(filter, "jwtService", jwtService);
+        BenchmarkSupport.inject(filter, "userService", stubUserService(user));
+        BenchmarkSupport.inject(filter, "revocationService", new IAccessTokenRevocationService() {
+            @Override
+            public void revoke(VerifiedToken verifiedToken) {
+            }
+
+            @Override
+            public boolean isRevoked(VerifiedToken verifiedToken) {
+                return false;
+            }
+        });
+        BenchmarkSupport.inject(filter, "statelessAuthEnabled", statelessAuth);
+        BenchmarkSupport.inject(filter, "authMetrics", new AuthMetrics());
+        BenchmarkSupport.inject(filter, "auditService", new AuditServiceImpl());
+        BenchmarkSupport.inject(filter, "maxTokenLength", 4096);
+
+        request = new MockHttpServletRequest("GET", "/api/v1/user");
+        switch (token) {
+            case "valid" -> request.addHeader("Authorization", "Bearer " + jwtService.generateToken(user));
+            case "malformed" -> request.addHeader("Authorization", "Bearer not.a.jwt");
+            case "badSignature" -> request.addHeader("Authorization", "Bearer " + tamper(jwtService.generateToken(user)));
+            default -> { }
+        }
+        response = new MockHttpServletResponse();
+    }
+
+    // flips one character in the middle of the signature, keeping the token well-formed
+    private static String tamper(String jwt) {
+        int at = jwt.lastIndexOf('.') + 10;
+        char replacement = jwt.charAt(at) == 'A' ? 'B' : 'A';
+        return jwt.substring(0, at) + replacement + jwt.substring(at + 1);
+    }
+
+    @Benchmark
+    public int doFilterInternal() throws Exception {
+        filter.doFilterInternal(request, response, chain);
+        int status = response.getStatus();
+        SecurityContextHolder.clearContext();
+        response.reset();
+        return status;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    // only the two methods the filter calls are answered
+    private static IUserService stubUserService(User user) {
+        UserDetailsService userDetailsService = username -> user;
+        return (IUserService) Proxy.newProxyInstance(IUserService.class.getClassLoader(),
+                new Class<?>[]{IUserService.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "userDetailsService" -> userDetailsService;
+                    case "isStaleTokenVersion" -> false;
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+}
@@ -0,0 +1,65 @@
+package com.vinodh.security.jwt.config;
+
+import com.vinodh.security.jwt.metrics.AuthMetrics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The configured encoder (BCrypt behind the bounded hashing pool, as built by
+ * SecurityConfiguration) against plain BCrypt on the caller thread, which isolates the hand-off
+ * cost. One op is one hash, so expect tens of ops per second per thread.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class PasswordEncoderBenchmark {
+
+    @Param({"configured", "bcrypt"})
+    public String encoder;
+
+    private PasswordEncoder passwordEncoder;
+    private String encoded;
+
+    @Setup
+    public void setUp() {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder();
+        passwordEncoder = "configured".equals(encoder)
+                ? new BoundedPasswordEncoder(bcrypt, Runtime.getRuntime().availableProcessors(), 64, new AuthMetrics())
+                : bcrypt;
+        encoded = bcrypt.encode("benchmark-password");
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (passwordEncoder instanceof BoundedPasswordEncoder bounded) {
+            bounded.shutdown();
+        }
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return passwordEncoder.matches("benchmark-password", encoded);
+    }
+
+    @Benchmark
+    public String encode() {
+        return passwordEncoder.encode("benchmark-password");
+    }
+}
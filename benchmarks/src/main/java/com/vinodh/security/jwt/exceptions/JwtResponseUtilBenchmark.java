@@ -0,0 +1,44 @@
+package com.vinodh.security.jwt.exceptions;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.TimeUnit;
+
+// the 401 body written by the filter for every rejected token
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtResponseUtilBenchmark {
+
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() {
+        request = new MockHttpServletRequest("GET", "/api/v1/user");
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public int sendError() throws Exception {
+        JwtResponseUtil.sendError(request, response, HttpStatus.UNAUTHORIZED, "Invalid JWT token");
+        int status = response.getStatus();
+        response.reset();
+        return status;
+    }
+}
@@ -0,0 +1,115 @@
+package com.vinodh.security.jwt.repository;
+
+import com.vinodh.security.jwt.SpringSecurityApplication;
+import com.vinodh.security.jwt.dto.UserSummary;
+import com.vinodh.security.jwt.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * One keyset page of the admin user listing read two ways against in-memory H2, each in its own
+ * transaction: hydrating managed User entities and mapping them (the entities are tracked and
+ * dirty-checked at commit), versus the UserSummary constructor-expression projection the admin
+ * endpoints use. Runs inside the full application context so the Hibernate settings are the real
+ * ones.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserReadBenchmark {
+
+    private static final int USERS = 10_000;
+
+    @Param({"100", "1000"})
+    public int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private EntityManagerFactory entityManagerFactory;
+
+    @Setup
+    public void setUp() {
+        // passed as arguments so they override application.yml
+        context = new SpringApplicationBuilder(SpringSecurityApplication.class).run(
+                "--spring.datasource.url=jdbc:h2:mem:bench;NON_KEYWORDS=USER;MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.jpa.hibernate.ddl-auto=validate",
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.format_sql=false",
+                "--server.port=0",
+                "--app.refreshTokenPurge.enabled=false",
+                "--logging.level.root=WARN");
+        entityManagerFactory = context.getBean(EntityManagerFactory.class);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        List<Object[]> rows = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            rows.add(new Object[]{"First" + i, "Last" + i, "user" + i + "@bench.io",
+                    "$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z6z1uZ1fP0wXo5C6n1aYqQ9K", i % 2, i % 10 == 0});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO user (first_name, last_name, email, password, role, is_disabled, token_version) "
+                + "VALUES (?, ?, ?, ?, ?, ?, 0)", rows);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<UserSummary> entities() {
+        return inTransaction(entityManager -> entityManager
+                .createQuery("select u from User u where u.id > :afterId order by u.id", User.class)
+                .setParameter("afterId", 0)
+                .setMaxResults(pageSize)
+                .getResultList().stream()
+                .map(UserSummary::of)
+                .toList());
+    }
+
+    @Benchmark
+    public List<UserSummary> projection() {
+        return inTransaction(entityManager -> entityManager
+                .createQuery("select new com.vinodh.security.jwt.dto.UserSummary("
+                        + "u.id, u.firstName, u.lastName, u.email, u.role, u.isDisabled, u.tokenVersion) "
+                        + "from User u where u.id > :afterId order by u.id", UserSummary.class)
+                .setParameter("afterId", 0)
+                .setMaxResults(pageSize)
+                .getResultList());
+    }
+
+    private <T> T inTransaction(Function<EntityManager, T> work) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            entityManager.getTransaction().begin();
+            T result = work.apply(entityManager);
+            entityManager.getTransaction().commit();
+            return result;
+        } finally {
+            entityManager.close();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.vinodh.security.jwt.service.impl;
+
+import com.vinodh.security.jwt.benchmarks.BenchmarkSupport;
+import com.vinodh.security.jwt.metrics.AuthMetrics;
+import com.vinodh.security.jwt.model.AuditEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Cost of {@code publish} on the calling thread, with 4 publishers and the writer appending NDJSON to
+ * a temporary directory. Under {@code drop} a full buffer costs one failed offer; under {@code block}
+ * publishers are held back to the writer's pace. How many events were written and dropped is logged
+ * at the end of each trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class AuditServiceBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditServiceBenchmark.class);
+
+    @Param({"drop", "block"})
+    public String overflow;
+
+    private Path directory;
+    private AuditServiceImpl auditService;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("audit-bench");
+        auditService = new AuditServiceImpl();
+        BenchmarkSupport.inject(auditService, "authMetrics", new AuthMetrics());
+        BenchmarkSupport.inject(auditService, "enabled", true);
+        BenchmarkSupport.inject(auditService, "directory", directory.toString());
+        BenchmarkSupport.inject(auditService, "fileName", "audit");
+        BenchmarkSupport.inject(auditService, "maxFileBytes", 64L * 1024 * 1024);
+        BenchmarkSupport.inject(auditService, "maxFiles", 2);
+        BenchmarkSupport.inject(auditService, "queueCapacity", 65536);
+        BenchmarkSupport.inject(auditService, "batchSize", 512);
+        BenchmarkSupport.inject(auditService, "flushMs", 200L);
+        BenchmarkSupport.inject(auditService, "overflowPolicy", overflow);
+        BenchmarkSupport.inject(auditService, "blockTimeoutMs", 50L);
+        auditService.init();
+    }
+
+    @Benchmark
+    public void publish() {
+        auditService.publish(AuditEvent.Action.LOGIN, AuditEvent.SUCCESS, 42, "user42@example.com");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        auditService.shutdown();
+        // throughput under drop only means something next to how much of it was thrown away
+        logger.info("Audit trial overflow={}: written={}, dropped={}", overflow,
+                auditService.stats().getWritten(), auditService.stats().getDropped());
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.vinodh.security.jwt.service.impl;
+
+import com.vinodh.security.jwt.benchmarks.BenchmarkSupport;
+import com.vinodh.security.jwt.metrics.AuthMetrics;
+
+/**
+ * Builds a {@link JwtServiceImpl} over an ephemeral RS256 key ring without a Spring context. Lives
+ * in this package because the services' init methods are package-private.
+ */
+public final class JwtFixtures {
+
+    private JwtFixtures() {
+    }
+
+    public static JwtServiceImpl jwtService(boolean tokenCache, boolean statelessAuth) {
+        JwtKeyServiceImpl keyService = new JwtKeyServiceImpl();
+        BenchmarkSupport.inject(keyService, "keystorePaths", new String[0]);
+        BenchmarkSupport.inject(keyService, "keystorePassword", "");
+        BenchmarkSupport.inject(keyService, "activeKid", "");
+        keyService.init();
+
+        JwtServiceImpl jwtService = new JwtServiceImpl();
+        BenchmarkSupport.inject(jwtService, "keyService", keyService);
+        // never initialised, so metrics stay disabled as with app.metrics.enabled=false
+        BenchmarkSupport.inject(jwtService, "authMetrics", new AuthMetrics());
+        BenchmarkSupport.inject(jwtService, "jwtExpirationMs", 900_000L);
+        BenchmarkSupport.inject(jwtService, "statelessAuthEnabled", statelessAuth);
+        BenchmarkSupport.inject(jwtService, "statelessMaxStalenessMs", 300_000L);
+        BenchmarkSupport.inject(jwtService, "tokenCacheEnabled", tokenCache);
+        BenchmarkSupport.inject(jwtService, "tokenCacheMaxSize", 50_000L);
+        jwtService.initTokenCache();
+        return jwtService;
+    }
+}
@@ -0,0 +1,65 @@
+package com.vinodh.security.jwt.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Login limiter under contention: 8 threads hammering one key (every thread CASes the same bucket)
+ * or spread over many keys, with buckets that always admit or that are exhausted (read-only reject
+ * path, what a stuffing run sees once throttled).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class TokenBucketLimiterBenchmark {
+
+    @Param({"1", "10000"})
+    public int keys;
+
+    @Param({"admit", "reject"})
+    public String outcome;
+
+    private TokenBucketLimiter limiter;
+    private String[] keyNames;
+
+    @Setup
+    public void setUp() {
+        limiter = "admit".equals(outcome)
+                // a burst of 1e9 at 1µs per token: never drained, and idle expiry (~17 min) never fires
+                ? new TokenBucketLimiter(1_000_000_000, Duration.ofNanos(1_000), 100_000)
+                : new TokenBucketLimiter(1, Duration.ofHours(1), 100_000);
+        keyNames = new String[keys];
+        for (int i = 0; i < keys; i++) {
+            keyNames[i] = "10.0." + (i >> 8) + "." + (i & 0xFF);
+            limiter.tryAcquire(keyNames[i]);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next = (int) (Thread.currentThread().getId() * 7919);
+    }
+
+    @Benchmark
+    public long tryAcquire(Cursor cursor) {
+        String key = keyNames[Math.floorMod(cursor.next++, keyNames.length)];
+        return limiter.tryAcquire(key);
+    }
+}
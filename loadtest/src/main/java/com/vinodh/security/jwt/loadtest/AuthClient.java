@@ -0,0 +1,84 @@
+package com.vinodh.security.jwt.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Blocking calls against the auth API, one shared {@link HttpClient}. Every call returns the HTTP
+ * status together with the tokens it handed out, if any; transport failures propagate.
+ */
+final class AuthClient {
+
+    record Result(int status, String accessToken, String refreshToken) {
+
+        boolean ok() {
+            return status == 200;
+        }
+    }
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String baseUrl;
+    private final Duration timeout;
+
+    AuthClient(String baseUrl, int timeoutMs) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.timeout = Duration.ofMillis(timeoutMs);
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .build();
+    }
+
+    Result login(String email, String password) throws IOException, InterruptedException {
+        return post("/api/v1/auth/login", Map.of("email", email, "password", password), null);
+    }
+
+    Result refresh(String refreshToken) throws IOException, InterruptedException {
+        return post("/api/v1/auth/refresh", Map.of("refreshToken", refreshToken), null);
+    }
+
+    Result logout(String accessToken, String refreshToken) throws IOException, InterruptedException {
+        return post("/api/v1/auth/logout", Map.of("refreshToken", refreshToken), accessToken);
+    }
+
+    Result get(String accessToken) throws IOException, InterruptedException {
+        HttpRequest request = request("/api/v1/user", accessToken).GET().build();
+        HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+        return new Result(response.statusCode(), null, null);
+    }
+
+    private Result post(String path, Map<String, String> body, String accessToken) throws IOException, InterruptedException {
+        HttpRequest request = request(path, accessToken)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                .build();
+        HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200 || response.body().length == 0) {
+            return new Result(response.statusCode(), null, null);
+        }
+        JsonNode json = objectMapper.readTree(response.body());
+        return new Result(response.statusCode(), text(json, "accessToken"), text(json, "refreshToken"));
+    }
+
+    private HttpRequest.Builder request(String path, String accessToken) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(timeout);
+        if (accessToken != null) {
+            builder.header("Authorization", "Bearer " + accessToken);
+        }
+        return builder;
+    }
+
+    private static String text(JsonNode json, String field) {
+        JsonNode node = json.get(field);
+        return node == null || node.isNull() ? null : node.asText();
+    }
+}
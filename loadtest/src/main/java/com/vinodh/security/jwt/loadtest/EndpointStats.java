@@ -0,0 +1,67 @@
+package com.vinodh.security.jwt.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency and outcomes of one endpoint. Latency runs from the request's scheduled start, not from
+ * when it was actually sent, so a stalled server shows up in the percentiles instead of silently
+ * lowering the offered rate (coordinated omission).
+ */
+final class EndpointStats {
+
+    private static final long MAX_TRACKED_NANOS = TimeUnit.MINUTES.toNanos(5);
+
+    private final Histogram latency = new ConcurrentHistogram(MAX_TRACKED_NANOS, 3);
+    private final LongAdder ok = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final Map<String, LongAdder> errorsByKind = new ConcurrentHashMap<>();
+
+    void success(long nanos) {
+        ok.increment();
+        record(nanos);
+    }
+
+    // kind is the HTTP status, or the exception name when no response arrived
+    void failure(long nanos, String kind) {
+        errors.increment();
+        errorsByKind.computeIfAbsent(kind, k -> new LongAdder()).increment();
+        record(nanos);
+    }
+
+    private void record(long nanos) {
+        latency.recordValue(Math.min(nanos, MAX_TRACKED_NANOS));
+    }
+
+    long count() {
+        return ok.sum() + errors.sum();
+    }
+
+    long errors() {
+        return errors.sum();
+    }
+
+    double percentileMs(double percentile) {
+        return latency.getValueAtPercentile(percentile) / 1_000_000.0;
+    }
+
+    double maxMs() {
+        return latency.getMaxValue() / 1_000_000.0;
+    }
+
+    Map<String, Long> errorsByKind() {
+        Map<String, Long> sorted = new TreeMap<>();
+        errorsByKind.forEach((kind, count) -> sorted.put(kind, count.sum()));
+        return sorted;
+    }
+
+    void addTo(Histogram total) {
+        total.add(latency);
+    }
+}
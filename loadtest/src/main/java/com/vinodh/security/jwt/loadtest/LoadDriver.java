@@ -0,0 +1,259 @@
+package com.vinodh.security.jwt.loadtest;
+
+import com.vinodh.security.jwt.loadtest.SessionPool.Session;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop load driver for login, refresh, authenticated GET and logout. Requests are started on a
+ * fixed schedule at the target rate, each on its own virtual thread, whatever the server's response
+ * times; a weighted mix picks the operation. The session pool is filled from the seeded fixture
+ * refresh tokens, so the run does not begin with a BCrypt storm. After the warm-up, latency and
+ * outcomes are recorded per endpoint and printed as p50/p99/p999 and throughput.
+ *
+ * <pre>
+ * java -jar loadtest.jar -baseUrl=http://localhost:8080 -rate=500 -duration=60 -warmup=10 \
+ *     -users=100000 -sessions=200 -mix=login=5,refresh=10,get=80,logout=5
+ * </pre>
+ *
+ * Exits with status 1 when the error rate exceeds {@code -maxErrorRate} (default 0.01), so a run can
+ * gate a release.
+ */
+public final class LoadDriver {
+
+    private final LoadOptions options;
+    private final AuthClient client;
+    private final SessionPool sessions;
+    private final Operation[] schedule;
+    private final Map<Operation, EndpointStats> stats = new EnumMap<>(Operation.class);
+    private final LongAdder skipped = new LongAdder();
+    private volatile long measureFrom;
+
+    private LoadDriver(LoadOptions options) {
+        this.options = options;
+        this.client = new AuthClient(options.baseUrl, options.requestTimeoutMs);
+        this.sessions = new SessionPool(options.sessions);
+        this.schedule = weightedSchedule(options.mix);
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new EndpointStats());
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        LoadOptions options;
+        try {
+            options = LoadOptions.parse(args);
+        } catch (IllegalArgumentException ex) {
+            System.err.println(ex.getMessage());
+            System.exit(2);
+            return;
+        }
+        LoadDriver driver = new LoadDriver(options);
+        driver.fillSessions();
+        long measuredNanos = driver.run();
+        boolean passed = driver.report(measuredNanos);
+        System.exit(passed ? 0 : 1);
+    }
+
+    private void fillSessions() throws InterruptedException {
+        // fixture tokens revoked by an earlier run's logouts fail; keep drawing other users
+        int filled = 0;
+        for (int attempt = 0; filled < options.sessions && attempt < options.sessions * 4; attempt++) {
+            int userIndex = ThreadLocalRandom.current().nextInt(options.users);
+            String refreshToken = String.format(options.refreshTokenPattern, userIndex);
+            try {
+                AuthClient.Result result = client.refresh(refreshToken);
+                if (result.ok()) {
+                    sessions.add(userIndex, result.accessToken(), refreshToken);
+                    filled++;
+                }
+            } catch (IOException ex) {
+                System.err.println("Session fill failed: " + ex);
+                break;
+            }
+        }
+        if (filled == 0) {
+            throw new IllegalStateException("No session could be opened; is the server running with the loadtest profile at "
+                    + options.baseUrl + "?");
+        }
+        System.out.printf("Opened %d/%d sessions from fixture refresh tokens%n", filled, options.sessions);
+    }
+
+    private long run() throws InterruptedException {
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / options.rate;
+        long start = System.nanoTime();
+        measureFrom = start + TimeUnit.SECONDS.toNanos(options.warmupSeconds);
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(options.durationSeconds);
+        Semaphore inFlight = new Semaphore(options.maxInFlight);
+        System.out.printf("Warm-up %ds, then %ds at %d req/s against %s%n",
+                options.warmupSeconds, options.durationSeconds, options.rate, options.baseUrl);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long n = 0; ; n++) {
+                long intended = start + n * intervalNanos;
+                if (intended >= end) {
+                    break;
+                }
+                long wait = intended - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                // if the server falls this far behind, requests queue here; their latency still
+                // counts from the intended start
+                inFlight.acquire();
+                Operation operation = schedule[ThreadLocalRandom.current().nextInt(schedule.length)];
+                executor.execute(() -> {
+                    try {
+                        execute(operation, intended);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        } // close() waits for the requests still in flight
+        return end - measureFrom;
+    }
+
+    private void execute(Operation operation, long intended) {
+        String outcome;
+        try {
+            outcome = switch (operation) {
+                case LOGIN -> login();
+                case REFRESH -> refresh();
+                case GET -> get();
+                case LOGOUT -> logout();
+            };
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (Exception ex) {
+            outcome = ex.getClass().getSimpleName();
+        }
+        if (outcome == null) {
+            skipped.increment();
+            return;
+        }
+        long now = System.nanoTime();
+        if (intended < measureFrom) {
+            return;
+        }
+        EndpointStats endpoint = stats.get(operation);
+        if (outcome.isEmpty()) {
+            endpoint.success(now - intended);
+        } else {
+            endpoint.failure(now - intended, outcome);
+        }
+    }
+
+    // each operation returns "" on success, the failure kind otherwise, or null when no session was free
+
+    private String login() throws Exception {
+        int userIndex = ThreadLocalRandom.current().nextInt(options.users);
+        AuthClient.Result result = client.login(String.format(options.emailPattern, userIndex), options.password);
+        if (!result.ok()) {
+            return String.valueOf(result.status());
+        }
+        sessions.add(userIndex, result.accessToken(), result.refreshToken());
+        return "";
+    }
+
+    private String refresh() throws Exception {
+        Session session = sessions.pick();
+        if (session == null) {
+            return null;
+        }
+        AuthClient.Result result = client.refresh(session.refreshToken());
+        if (!result.ok()) {
+            return String.valueOf(result.status());
+        }
+        sessions.refreshed(session, result.accessToken());
+        return "";
+    }
+
+    private String get() throws Exception {
+        Session session = sessions.pick();
+        if (session == null) {
+            return null;
+        }
+        AuthClient.Result result = client.get(session.accessToken());
+        return result.ok() ? "" : String.valueOf(result.status());
+    }
+
+    private String logout() throws Exception {
+        Session session = sessions.take();
+        if (session == null) {
+            return null;
+        }
+        AuthClient.Result result = client.logout(session.accessToken(), session.refreshToken());
+        return result.ok() ? "" : String.valueOf(result.status());
+    }
+
+    private boolean report(long measuredNanos) {
+        double seconds = measuredNanos / 1e9;
+        Histogram total = new Histogram(3);
+        long totalCount = 0;
+        long totalErrors = 0;
+        System.out.println();
+        System.out.printf("%-26s %9s %8s %10s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        for (Operation operation : Operation.values()) {
+            EndpointStats endpoint = stats.get(operation);
+            if (endpoint.count() == 0) {
+                continue;
+            }
+            printRow(operation.endpoint, endpoint.count(), endpoint.errors(), seconds,
+                    endpoint.percentileMs(50), endpoint.percentileMs(99), endpoint.percentileMs(99.9), endpoint.maxMs());
+            endpoint.addTo(total);
+            totalCount += endpoint.count();
+            totalErrors += endpoint.errors();
+        }
+        printRow("total", totalCount, totalErrors, seconds,
+                total.getValueAtPercentile(50) / 1e6, total.getValueAtPercentile(99) / 1e6,
+                total.getValueAtPercentile(99.9) / 1e6, total.getMaxValue() / 1e6);
+
+        for (Operation operation : Operation.values()) {
+            Map<String, Long> errors = stats.get(operation).errorsByKind();
+            if (!errors.isEmpty()) {
+                System.out.printf("errors %-19s %s%n", operation.name().toLowerCase(), errors);
+            }
+        }
+        if (skipped.sum() > 0) {
+            System.out.printf("skipped %d operations with no live session (live now: %d); keep login >= logout in the mix%n",
+                    skipped.sum(), sessions.live());
+        }
+        double errorRate = totalCount == 0 ? 1.0 : totalErrors / (double) totalCount;
+        boolean passed = errorRate <= options.maxErrorRate;
+        System.out.printf("target %d req/s, achieved %.1f req/s, error rate %.4f (max %.4f): %s%n",
+                options.rate, totalCount / seconds, errorRate, options.maxErrorRate, passed ? "PASS" : "FAIL");
+        return passed;
+    }
+
+    private static void printRow(String name, long count, long errors, double seconds,
+                                 double p50, double p99, double p999, double max) {
+        System.out.printf("%-26s %9d %8d %10.1f %9.2f %9.2f %9.2f %9.2f%n",
+                name, count, errors, count / seconds, p50, p99, p999, max);
+    }
+
+    // one array slot per unit of weight, so picking is a single random index
+    private static Operation[] weightedSchedule(Map<Operation, Integer> mix) {
+        int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+        Operation[] schedule = new Operation[total];
+        int i = 0;
+        for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+            for (int w = 0; w < entry.getValue(); w++) {
+                schedule[i++] = entry.getKey();
+            }
+        }
+        return schedule;
+    }
+}
@@ -0,0 +1,79 @@
+package com.vinodh.security.jwt.loadtest;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Command line of the load driver, {@code -name=value} pairs. Fixture patterns and the password
+ * default to the values of application-loadtest.yml and must match what the server seeded.
+ */
+final class LoadOptions {
+
+    final String baseUrl;
+    final int rate;
+    final int durationSeconds;
+    final int warmupSeconds;
+    final int users;
+    final int sessions;
+    final int maxInFlight;
+    final int requestTimeoutMs;
+    final double maxErrorRate;
+    final String emailPattern;
+    final String refreshTokenPattern;
+    final String password;
+    final Map<Operation, Integer> mix;
+
+    private LoadOptions(Map<String, String> args) {
+        baseUrl = args.getOrDefault("baseUrl", "http://localhost:8080");
+        rate = Integer.parseInt(args.getOrDefault("rate", "200"));
+        durationSeconds = Integer.parseInt(args.getOrDefault("duration", "60"));
+        warmupSeconds = Integer.parseInt(args.getOrDefault("warmup", "10"));
+        users = Integer.parseInt(args.getOrDefault("users", "100000"));
+        sessions = Integer.parseInt(args.getOrDefault("sessions", "200"));
+        maxInFlight = Integer.parseInt(args.getOrDefault("maxInFlight", "2000"));
+        requestTimeoutMs = Integer.parseInt(args.getOrDefault("timeoutMs", "10000"));
+        maxErrorRate = Double.parseDouble(args.getOrDefault("maxErrorRate", "0.01"));
+        emailPattern = args.getOrDefault("emailPattern", "user%d@loadtest.local");
+        refreshTokenPattern = args.getOrDefault("refreshTokenPattern", "loadtest-refresh-%d");
+        password = args.getOrDefault("password", "loadtest");
+        mix = parseMix(args.getOrDefault("mix", "login=5,refresh=10,get=80,logout=5"));
+        if (rate <= 0 || durationSeconds <= 0 || users <= 0 || sessions <= 0) {
+            throw new IllegalArgumentException("rate, duration, users and sessions must be positive");
+        }
+        if (sessions > users) {
+            throw new IllegalArgumentException("sessions must not exceed users");
+        }
+    }
+
+    static LoadOptions parse(String[] argv) {
+        Map<String, String> args = new HashMap<>();
+        for (String arg : argv) {
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("-") || eq < 0) {
+                throw new IllegalArgumentException("Expected -name=value, got: " + arg);
+            }
+            args.put(arg.substring(arg.startsWith("--") ? 2 : 1, eq), arg.substring(eq + 1));
+        }
+        return new LoadOptions(args);
+    }
+
+    // "login=5,refresh=10,get=80,logout=5": relative weights, need not add up to 100
+    private static Map<Operation, Integer> parseMix(String spec) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String part : spec.split(",")) {
+            String[] kv = part.trim().split("=");
+            if (kv.length != 2) {
+                throw new IllegalArgumentException("Bad mix entry: " + part);
+            }
+            int weight = Integer.parseInt(kv[1].trim());
+            if (weight > 0) {
+                weights.put(Operation.fromName(kv[0].trim()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("Mix has no operations: " + spec);
+        }
+        return weights;
+    }
+}
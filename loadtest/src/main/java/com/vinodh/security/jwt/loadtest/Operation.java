@@ -0,0 +1,25 @@
+package com.vinodh.security.jwt.loadtest;
+
+import java.util.Locale;
+
+// the request types in a mix, reported per endpoint
+enum Operation {
+    LOGIN("POST /api/v1/auth/login"),
+    REFRESH("POST /api/v1/auth/refresh"),
+    GET("GET /api/v1/user"),
+    LOGOUT("POST /api/v1/auth/logout");
+
+    final String endpoint;
+
+    Operation(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    static Operation fromName(String name) {
+        try {
+            return valueOf(name.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Unknown operation in mix: " + name);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.vinodh.security.jwt.loadtest;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Logged-in fixture users that refresh, GET and logout operations act on. A slot is taken out of
+ * circulation before its logout is sent, so concurrent operations do not race a revoked token, and
+ * the next successful login refills an emptied slot before overwriting a live one.
+ */
+final class SessionPool {
+
+    record Session(int slot, int userIndex, String accessToken, String refreshToken) {
+    }
+
+    private static final int PICK_ATTEMPTS = 8;
+
+    private final AtomicReferenceArray<Session> slots;
+    private final ConcurrentLinkedQueue<Integer> emptySlots = new ConcurrentLinkedQueue<>();
+
+    SessionPool(int size) {
+        this.slots = new AtomicReferenceArray<>(size);
+        for (int i = 0; i < size; i++) {
+            emptySlots.add(i);
+        }
+    }
+
+    void add(int userIndex, String accessToken, String refreshToken) {
+        Integer empty = emptySlots.poll();
+        int slot = empty != null ? empty : ThreadLocalRandom.current().nextInt(slots.length());
+        slots.set(slot, new Session(slot, userIndex, accessToken, refreshToken));
+    }
+
+    // a random live session, or null when the pool is empty
+    Session pick() {
+        int length = slots.length();
+        for (int i = 0; i < PICK_ATTEMPTS; i++) {
+            Session session = slots.get(ThreadLocalRandom.current().nextInt(length));
+            if (session != null) {
+                return session;
+            }
+        }
+        // sparse pool: walk from a random offset rather than give up
+        int offset = ThreadLocalRandom.current().nextInt(length);
+        for (int i = 0; i < length; i++) {
+            Session session = slots.get((offset + i) % length);
+            if (session != null) {
+                return session;
+            }
+        }
+        return null;
+    }
+
+    // removes a live session for logout; null if none could be claimed
+    Session take() {
+        for (int i = 0; i < PICK_ATTEMPTS; i++) {
+            int slot = ThreadLocalRandom.current().nextInt(slots.length());
+            Session session = slots.get(slot);
+            if (session != null && slots.compareAndSet(slot, session, null)) {
+                emptySlots.add(slot);
+                return session;
+            }
+        }
+        return null;
+    }
+
+    // swaps in a refreshed access token unless the slot has moved on in the meantime
+    void refreshed(Session previous, String accessToken) {
+        slots.compareAndSet(previous.slot(), previous,
+                new Session(previous.slot(), previous.userIndex(), accessToken, previous.refreshToken()));
+    }
+
+    int live() {
+        int live = 0;
+        for (int i = 0; i < slots.length(); i++) {
+            if (slots.get(i) != null) {
+                live++;
+            }
+        }
+        return live;
+    }
+}
@@ -0,0 +1,131 @@
+package com.vinodh.security.jwt.config;
+
+import com.vinodh.security.jwt.dto.PasswordHashingStatsResponse;
+import com.vinodh.security.jwt.exceptions.PasswordHashingRejectedException;
+import com.vinodh.security.jwt.metrics.AuthMetrics;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs the delegate's (CPU-bound) hashing on a fixed pool sized to the core count with a bounded
+ * queue. When the queue is full the caller fails fast with {@link PasswordHashingRejectedException}
+ * instead of piling up, so a login burst cannot occupy every request thread.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private static final Logger logger = LoggerFactory.getLogger(BoundedPasswordEncoder.class);
+
+    private final PasswordEncoder delegate;
+    private final AuthMetrics authMetrics;
+    private final ThreadPoolExecutor executor;
+    private final int queueCapacity;
+
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder hashCount = new LongAdder();
+    private final LongAdder hashNanos = new LongAdder();
+    private final AtomicLong maxHashNanos = new AtomicLong();
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, AuthMetrics authMetrics) {
+        this.delegate = delegate;
+        this.authMetrics = authMetrics;
+        this.queueCapacity = queueCapacity;
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor.prestartAllCoreThreads();
+        authMetrics.monitorExecutor(executor, "password.hashing");
+        logger.info("Password hashing executor started threads={}, queueCapacity={}", threads, queueCapacity);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return submit(() -> delegate.encode(rawPassword), true);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(() -> delegate.matches(rawPassword, encodedPassword), false);
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T submit(Callable<T> hash, boolean encode) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> timed(hash, encode));
+        } catch (RejectedExecutionException ex) {
+            rejected.increment();
+            authMetrics.passwordRejected();
+            throw new PasswordHashingRejectedException("Server is busy, please retry shortly");
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingRejectedException("Password hashing interrupted");
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", cause);
+        }
+    }
+
+    private <T> T timed(Callable<T> hash, boolean encode) throws Exception {
+        long start = System.nanoTime();
+        try {
+            return hash.call();
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            hashCount.increment();
+            hashNanos.add(elapsed);
+            maxHashNanos.accumulateAndGet(elapsed, Math::max);
+            if (encode) {
+                authMetrics.recordPasswordEncode(elapsed);
+            } else {
+                authMetrics.recordPasswordMatches(elapsed);
+            }
+        }
+    }
+
+    public PasswordHashingStatsResponse stats() {
+        long count = hashCount.sum();
+        double averageMs = count == 0 ? 0 : hashNanos.sum() / (double) count / 1_000_000;
+        return new PasswordHashingStatsResponse(
+                executor.getPoolSize(),
+                executor.getActiveCount(),
+                executor.getQueue().size(),
+                queueCapacity,
+                executor.getCompletedTaskCount(),
+                rejected.sum(),
+                averageMs,
+                maxHashNanos.get() / 1_000_000.0);
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
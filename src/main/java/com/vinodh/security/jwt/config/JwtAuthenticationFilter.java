@@ -2,10 +2,17 @@ package com.vinodh.security.jwt.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.vinodh.security.jwt.exceptions.ErrorResponse;
-import com.vinodh.security.jwt.exceptions.InvalidTokenException;
 import com.vinodh.security.jwt.exceptions.JwtResponseUtil;
+import com.vinodh.security.jwt.metrics.AuthMetrics;
+import com.vinodh.security.jwt.metrics.AuthMetrics.Rejection;
+import com.vinodh.security.jwt.model.AuditEvent;
+import com.vinodh.security.jwt.model.Role;
+import com.vinodh.security.jwt.model.VerifiedToken;
+import com.vinodh.security.jwt.service.IAccessTokenRevocationService;
+import com.vinodh.security.jwt.service.IAuditService;
 import com.vinodh.security.jwt.service.IJwtService;
 import com.vinodh.security.jwt.service.IUserService;
+import com.vinodh.security.jwt.util.TokenShape;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.security.SignatureException;
@@ -15,8 +22,11 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -24,6 +34,9 @@ import org.springframework.security.web.authentication.WebAuthenticationDetailsS
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -36,55 +49,110 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private  IJwtService jwtService;
     @Autowired
     private  IUserService userService;
+    @Autowired
+    private IAccessTokenRevocationService revocationService;
+    @Autowired
+    private AuthMetrics authMetrics;
+    @Autowired
+    private IAuditService auditService;
+
+    @Value("${app.statelessAuth.enabled:false}")
+    private boolean statelessAuthEnabled;
+
+    @Value("${app.jwt.maxTokenLength:4096}")
+    private int maxTokenLength;
+
+    public static final String BEARER_PREFIX = "Bearer ";
+
+    private static final Map<Role, List<GrantedAuthority>> ROLE_AUTHORITIES = new EnumMap<>(Role.class);
+
+    static {
+        for (Role role : Role.values()) {
+            ROLE_AUTHORITIES.put(role, List.of(new SimpleGrantedAuthority(role.name())));
+        }
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
-        final String userEmail;
+        final VerifiedToken verifiedToken;
 
-        if (StringUtils.isEmpty(authHeader) || !StringUtils.startsWith(authHeader,"Bearer")) {
-            // no auth header - continue filter chain
+        if (authHeader == null || !authHeader.startsWith(BEARER_PREFIX)) {
+            // no bearer credentials (absent, another scheme, or "Bearer" glued to something) - continue filter chain
             filterChain.doFilter(request,response);
             return;
         }
 
-        jwt = authHeader.substring(7);
-        logger.debug("JWT extracted (masked) for request {}: {}", request.getRequestURI(), (jwt.length() > 10 ? jwt.substring(0,6)+"...": "masked"));
+        jwt = authHeader.substring(BEARER_PREFIX.length());
+        if (logger.isDebugEnabled()) {
+            logger.debug("JWT extracted (masked) for request {}: {}", request.getRequestURI(), (jwt.length() > 10 ? jwt.substring(0,6)+"...": "masked"));
+        }
 
+        // garbage is turned away before jjwt sees it: no base64/JSON decoding, no signature check
+        if (!TokenShape.isPlausibleJws(jwt, maxTokenLength)) {
+            authMetrics.reject(Rejection.ACCESS_MALFORMED);
+            logger.debug("Structurally invalid JWT for request {}", request.getRequestURI());
+            JwtResponseUtil.sendError(request, response, HttpStatus.UNAUTHORIZED, "Invalid JWT token");
+            return;
+        }
+
+        long verifyStart = authMetrics.start();
         try {
-            userEmail = jwtService.extractUserName(jwt);
+            // one parse per request: signature and expiry are verified here
+            verifiedToken = jwtService.verifyToken(jwt);
         } catch (ExpiredJwtException | MalformedJwtException | SignatureException e) {
-            logger.warn("JWT parsing failed for request {}: {}", request.getRequestURI(), e.getMessage());
+            authMetrics.reject(e instanceof ExpiredJwtException ? Rejection.ACCESS_EXPIRED
+                    : e instanceof SignatureException ? Rejection.ACCESS_BAD_SIGNATURE : Rejection.ACCESS_MALFORMED);
+            // counted in auth.rejections; a WARN line per bad token would make scanner traffic costlier than real traffic
+            logger.debug("JWT parsing failed for request {}: {}", request.getRequestURI(), e.getMessage());
             JwtResponseUtil.sendError(request, response, HttpStatus.UNAUTHORIZED, "Invalid JWT token");
             return;
         } catch (Exception e) {
             logger.error("JWT processing error for request {}: {}", request.getRequestURI(), e.getMessage(), e);
             JwtResponseUtil.sendError(request, response, HttpStatus.INTERNAL_SERVER_ERROR, "JWT token processing failed");
             return;
+        } finally {
+            authMetrics.recordJwtVerify(verifyStart);
         }
 
-        if (StringUtils.isNotEmpty(userEmail) && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userService.userDetailsService().loadUserByUsername(userEmail);
-
-            boolean isValid;
-            try {
-                isValid = jwtService.validateToken(jwt, userDetails);
-            } catch (Exception ex) {
-                logger.warn("JWT validation exception for user {}: {}", userEmail, ex.getMessage());
-                throw new InvalidTokenException("JWT token validation failed");
-            }
+        // Bloom-filter fast path: no I/O unless the jti might be revoked
+        if (revocationService.isRevoked(verifiedToken)) {
+            authMetrics.reject(Rejection.ACCESS_REVOKED);
+            // a genuine token used after logout, so worth an audit record (unlike forgeries and garbage)
+            auditService.publish(AuditEvent.Action.ACCESS_DENIED, Rejection.ACCESS_REVOKED.reason(),
+                    verifiedToken.getUserId(), verifiedToken.getSubject());
+            JwtResponseUtil.sendError(request, response, HttpStatus.UNAUTHORIZED, "Invalid JWT token");
+            return;
+        }
 
-            if (!isValid) {
-                logger.warn("Invalid/expired JWT for user {}", userEmail);
-                throw new InvalidTokenException("JWT token is invalid or expired");
+        final String userEmail = verifiedToken.getSubject();
+        if (StringUtils.isNotEmpty(userEmail) && SecurityContextHolder.getContext().getAuthentication() == null) {
+            UsernamePasswordAuthenticationToken token;
+            if (statelessAuthEnabled && verifiedToken.hasAuthorizationClaims()) {
+                // stateless mode: authorize straight from the verified claims, no user lookup
+                if (userService.isStaleTokenVersion(verifiedToken.getUserId(), verifiedToken.getTokenVersion())) {
+                    authMetrics.reject(Rejection.ACCESS_STALE);
+                    auditService.publish(AuditEvent.Action.ACCESS_DENIED, Rejection.ACCESS_STALE.reason(),
+                            verifiedToken.getUserId(), userEmail);
+                    JwtResponseUtil.sendError(request, response, HttpStatus.UNAUTHORIZED, "Invalid JWT token");
+                    return;
+                }
+                token = new UsernamePasswordAuthenticationToken(
+                        userEmail,
+                        null,
+                        ROLE_AUTHORITIES.get(verifiedToken.getRole())
+                );
+            } else {
+                // the principal is looked up by the verified subject, so no second validation parse is needed
+                UserDetails userDetails = userService.userDetailsService().loadUserByUsername(userEmail);
+                token = new UsernamePasswordAuthenticationToken(
+                        userDetails,
+                        null,
+                        userDetails.getAuthorities()
+                );
             }
             SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
-            UsernamePasswordAuthenticationToken token = new UsernamePasswordAuthenticationToken(
-                    userDetails,
-                    null,
-                    userDetails.getAuthorities()
-            );
             token.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
             securityContext.setAuthentication(token);
             SecurityContextHolder.setContext(securityContext);
@@ -0,0 +1,162 @@
+package com.vinodh.security.jwt.config;
+
+import com.vinodh.security.jwt.model.Role;
+import com.vinodh.security.jwt.util.TokenDigest;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Seeds fixture users and refresh tokens for the "loadtest" profile. Rows go in as JDBC batches, one
+ * transaction per chunk, and every fixture user shares a single BCrypt hash, so millions of rows take
+ * seconds instead of hours of hashing. Emails and raw refresh tokens follow fixed patterns with the
+ * user index substituted, which is how the load driver knows valid credentials without a lookup.
+ * Runs after the schema is in place and before the application serves traffic.
+ */
+@Component
+@Profile("loadtest")
+@DependsOn("entityManagerFactory")
+public class LoadTestFixtures {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadTestFixtures.class);
+
+    private static final String INSERT_USER = "INSERT INTO user (first_name, last_name, email, password, role, is_disabled, token_version)"
+            + " VALUES (?, ?, ?, ?, ?, FALSE, 0)";
+    private static final String INSERT_REFRESH_TOKEN = "INSERT INTO refresh_tokens (token_hash, user_id, expiry_date, revoked)"
+            + " VALUES (?, ?, ?, FALSE)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.loadtest.users:100000}")
+    private int users;
+
+    @Value("${app.loadtest.refreshTokens:true}")
+    private boolean refreshTokens;
+
+    @Value("${app.loadtest.batchSize:5000}")
+    private int batchSize;
+
+    @Value("${app.loadtest.emailPattern:user%d@loadtest.local}")
+    private String emailPattern;
+
+    @Value("${app.loadtest.refreshTokenPattern:loadtest-refresh-%d}")
+    private String refreshTokenPattern;
+
+    @Value("${app.loadtest.password:loadtest}")
+    private String password;
+
+    @Value("${app.refreshTokenStore.type:jpa}")
+    private String refreshTokenStoreType;
+
+    @Value("${app.jwtRefreshExpirationMs}")
+    private long refreshExpirationMs;
+
+    @PostConstruct
+    void seed() {
+        if (users <= 0) {
+            return;
+        }
+        if (alreadySeeded()) {
+            logger.info("Load test fixtures already present, skipping seed");
+            return;
+        }
+        boolean seedRefreshTokens = refreshTokens && "jpa".equalsIgnoreCase(refreshTokenStoreType);
+        if (refreshTokens && !seedRefreshTokens) {
+            logger.info("Fixture refresh tokens are only seeded for the jpa store, store type={}", refreshTokenStoreType);
+        }
+        long start = System.nanoTime();
+        // one hash for everyone: BCrypt per row would dominate the seed time
+        String passwordHash = new BCryptPasswordEncoder().encode(password);
+        Timestamp refreshExpiry = Timestamp.from(Instant.now().plusMillis(refreshExpirationMs));
+        for (int from = 0; from < users; from += batchSize) {
+            int to = Math.min(users, from + batchSize);
+            int chunkStart = from;
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Long> ids = insertUsers(chunkStart, to, passwordHash);
+                if (seedRefreshTokens) {
+                    insertRefreshTokens(chunkStart, ids, refreshExpiry);
+                }
+            });
+        }
+        long elapsedMs = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        logger.info("Seeded {} load test users (refresh tokens={}) in {} ms, {} users/s",
+                users, seedRefreshTokens, elapsedMs, users * 1000L / elapsedMs);
+    }
+
+    private boolean alreadySeeded() {
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM user WHERE email = ?", Integer.class, email(0));
+        return count != null && count > 0;
+    }
+
+    private List<Long> insertUsers(int from, int to, String passwordHash) {
+        GeneratedKeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_USER, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        int index = from + i;
+                        ps.setString(1, "Load");
+                        ps.setString(2, "User" + index);
+                        ps.setString(3, email(index));
+                        ps.setString(4, passwordHash);
+                        ps.setInt(5, Role.USER.ordinal());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return to - from;
+                    }
+                },
+                keys);
+        List<Long> ids = new ArrayList<>(to - from);
+        for (Map<String, Object> row : keys.getKeyList()) {
+            // the key column name differs per driver (id, ID, GENERATED_KEY)
+            ids.add(((Number) row.values().iterator().next()).longValue());
+        }
+        return ids;
+    }
+
+    private void insertRefreshTokens(int from, List<Long> ids, Timestamp expiry) {
+        jdbcTemplate.batchUpdate(INSERT_REFRESH_TOKEN, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setBytes(1, TokenDigest.sha256(String.format(refreshTokenPattern, from + i)));
+                ps.setLong(2, ids.get(i));
+                ps.setTimestamp(3, expiry);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return ids.size();
+            }
+        });
+    }
+
+    private String email(int index) {
+        return String.format(emailPattern, index);
+    }
+}
@@ -0,0 +1,125 @@
+package com.vinodh.security.jwt.config;
+
+import com.vinodh.security.jwt.util.TokenDigest;
+import org.flywaydb.core.api.MigrationVersion;
+import org.flywaydb.core.api.migration.Context;
+import org.flywaydb.core.api.migration.JavaMigration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.stereotype.Component;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Schema version 5: raw refresh tokens (VARCHAR {@code token} column from V1) become digests.
+ * Outstanding tokens keep working: each raw value is hashed into the new {@code token_hash} column
+ * exactly as a presented token is hashed on lookup, then the raw column is dropped. Spring Boot
+ * hands {@link JavaMigration} beans to Flyway, so it runs before the application starts.
+ *
+ * <p>MySQL commits DDL implicitly, so this does not pretend to run in one transaction. Each step is
+ * safe to repeat instead: the column and index are only added when missing, each batch commits on
+ * its own and skips rows already hashed, and the raw column is only dropped while it exists. After
+ * a failed run, {@code flyway repair} clears the failed entry and the next start picks up where the
+ * last one stopped.
+ */
+@Component
+public class RefreshTokenHashMigration implements JavaMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenHashMigration.class);
+
+    private static final String TABLE = "refresh_tokens";
+    private static final String LEGACY_COLUMN = "token";
+    private static final String HASH_COLUMN = "token_hash";
+    private static final String HASH_INDEX = "ux_refresh_tokens_token_hash";
+
+    @Value("${app.refreshToken.migrateBatchSize:1000}")
+    private int batchSize;
+
+    @Override
+    public MigrationVersion getVersion() {
+        return MigrationVersion.fromVersion("5");
+    }
+
+    @Override
+    public String getDescription() {
+        return "hash legacy refresh tokens";
+    }
+
+    @Override
+    public Integer getChecksum() {
+        return null;
+    }
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return false;
+    }
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+        if (!hasColumn(connection, HASH_COLUMN)) {
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " ADD COLUMN " + HASH_COLUMN + " BINARY(32)");
+        }
+        if (!hasIndex(connection, HASH_INDEX)) {
+            jdbcTemplate.execute("CREATE UNIQUE INDEX " + HASH_INDEX + " ON " + TABLE + " (" + HASH_COLUMN + ")");
+        }
+        if (!hasColumn(connection, LEGACY_COLUMN)) {
+            logger.info("Legacy column {}.{} already dropped, nothing to hash", TABLE, LEGACY_COLUMN);
+            return;
+        }
+        logger.info("Hashing legacy refresh tokens in {}.{}", TABLE, LEGACY_COLUMN);
+        long migrated = 0;
+        long lastId = 0;
+        while (true) {
+            List<Object[]> rows = jdbcTemplate.query(
+                    "SELECT id, token FROM " + TABLE + " WHERE id > ? AND token_hash IS NULL ORDER BY id LIMIT ?",
+                    (rs, rowNum) -> new Object[]{rs.getLong(1), rs.getString(2)},
+                    lastId, batchSize);
+            if (rows.isEmpty()) {
+                break;
+            }
+            List<Object[]> updates = new ArrayList<>(rows.size());
+            for (Object[] row : rows) {
+                String legacy = (String) row[1];
+                if (legacy != null) {
+                    updates.add(new Object[]{TokenDigest.sha256(legacy), row[0]});
+                }
+                lastId = (Long) row[0];
+            }
+            jdbcTemplate.batchUpdate("UPDATE " + TABLE + " SET token_hash = ? WHERE id = ?", updates);
+            migrated += updates.size();
+        }
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " DROP COLUMN " + LEGACY_COLUMN);
+        logger.info("Legacy refresh token migration complete rows={}, dropped column {}.{}", migrated, TABLE, LEGACY_COLUMN);
+    }
+
+    // JDBC metadata rather than information_schema, whose index views differ between MySQL and H2
+    private static boolean hasColumn(Connection connection, String column) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        try (ResultSet rs = metaData.getColumns(connection.getCatalog(), connection.getSchema(), TABLE, column)) {
+            return rs.next();
+        }
+    }
+
+    private static boolean hasIndex(Connection connection, String index) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        try (ResultSet rs = metaData.getIndexInfo(connection.getCatalog(), connection.getSchema(), TABLE, false, false)) {
+            while (rs.next()) {
+                if (index.equalsIgnoreCase(rs.getString("INDEX_NAME"))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
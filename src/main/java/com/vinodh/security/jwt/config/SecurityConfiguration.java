@@ -1,9 +1,12 @@
 package com.vinodh.security.jwt.config;
 
 import com.vinodh.security.jwt.exceptions.JwtResponseUtil;
+import com.vinodh.security.jwt.metrics.AuthMetrics;
 import com.vinodh.security.jwt.model.Role;
 import com.vinodh.security.jwt.service.IUserService;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpStatus;
@@ -16,7 +19,6 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.slf4j.Logger;
@@ -32,6 +34,15 @@ public class SecurityConfiguration {
     private  JwtAuthenticationFilter jwtAuthenticationFilter;
     @Autowired
     private  IUserService userService;
+    @Autowired
+    private AuthMetrics authMetrics;
+
+    // 0 = one hashing thread per core
+    @Value("${app.passwordHashing.threads:0}")
+    private int passwordHashingThreads;
+
+    @Value("${app.passwordHashing.queueCapacity:64}")
+    private int passwordHashingQueueCapacity;
 
     private static final String[] SWAGGER_WHITELIST = {
             "/v3/api-docs/**",
@@ -49,7 +60,12 @@ public class SecurityConfiguration {
         logger.info("Configuring security filter chain");
         http.csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(request -> request
+                        // completion of a streamed response; the original request was already authorized
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/api/v1/auth/**").permitAll()
+                        .requestMatchers("/.well-known/jwks.json").permitAll()
+                        // served on the management port (management.server.port), not the public one
+                        .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()
                         .requestMatchers(SWAGGER_WHITELIST).permitAll()
                         .requestMatchers("/api/v1/admin/**","/question/upload").hasAuthority(Role.ADMIN.name())
                         .requestMatchers("/api/v1/user").hasAnyAuthority(Role.USER.name(), Role.ADMIN.name())
@@ -79,8 +95,9 @@ public class SecurityConfiguration {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BoundedPasswordEncoder passwordEncoder() {
+        int threads = passwordHashingThreads > 0 ? passwordHashingThreads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), threads, passwordHashingQueueCapacity, authMetrics);
     }
 
     @Bean
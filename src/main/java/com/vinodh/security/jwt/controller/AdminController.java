@@ -1,17 +1,35 @@
 package com.vinodh.security.jwt.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vinodh.security.jwt.config.BoundedPasswordEncoder;
+import com.vinodh.security.jwt.dto.AuditStatsResponse;
+import com.vinodh.security.jwt.dto.BulkUserRequest;
+import com.vinodh.security.jwt.dto.CacheStatsResponse;
+import com.vinodh.security.jwt.dto.PasswordHashingStatsResponse;
+import com.vinodh.security.jwt.dto.PurgeStatsResponse;
+import com.vinodh.security.jwt.dto.UserSummary;
+import com.vinodh.security.jwt.exceptions.ErrorResponse;
+import com.vinodh.security.jwt.model.Role;
 import com.vinodh.security.jwt.model.User;
+import com.vinodh.security.jwt.service.IAuditService;
 import com.vinodh.security.jwt.service.IUserService;
+import com.vinodh.security.jwt.service.impl.RefreshTokenPurgeJob;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/v1/admin")
@@ -19,61 +37,95 @@ public class AdminController {
 
     private static final Logger logger = LoggerFactory.getLogger(AdminController.class);
 
+    private static final String NEXT_AFTER_ID_HEADER = "X-Next-After-Id";
+    private static final String NDJSON = "application/x-ndjson";
+    private static final int STREAM_BUFFER_BYTES = 64 * 1024;
+
     @Autowired
     private IUserService userService;
 
+    @Autowired
+    private BoundedPasswordEncoder passwordEncoder;
+
+    @Autowired
+    private RefreshTokenPurgeJob refreshTokenPurgeJob;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private IAuditService auditService;
+
+    @Value("${app.adminListing.defaultPageSize:100}")
+    private int defaultPageSize;
+
+    @Value("${app.adminListing.maxPageSize:1000}")
+    private int maxPageSize;
+
     @GetMapping()
     public ResponseEntity<String> sayHi() {
-        logger.info("Admin endpoint hit: sayHi");
+        logger.debug("Admin endpoint hit: sayHi");
         return ResponseEntity.ok("HI ADMIN");
     }
 
     // Create user
     @PostMapping("/users")
-    public ResponseEntity<User> createUser(@RequestBody User user) {
-        logger.info("Admin creating user with email={}", user.getEmail());
+    public ResponseEntity<UserSummary> createUser(@RequestBody User user) {
         User saved = userService.create(user);
-        saved.setPassword(null); // do not expose password
-        logger.info("User created id={}, email={}", saved.getId(), saved.getEmail());
-        return ResponseEntity.status(HttpStatus.CREATED).body(saved);
+        return ResponseEntity.status(HttpStatus.CREATED).body(UserSummary.of(saved));
     }
 
-    // List all users
+    // List users one keyset page at a time; X-Next-After-Id carries the cursor for the next page
     @GetMapping("/users")
-    public ResponseEntity<List<User>> listUsers() {
-        logger.info("Admin listing all users");
-        List<User> users = userService.getAll()
-                .stream()
-                .peek(u -> u.setPassword(null))
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(users);
+    public ResponseEntity<List<UserSummary>> listUsers(@RequestParam(required = false) Integer afterId,
+                                                @RequestParam(required = false) Integer limit,
+                                                @RequestParam(required = false) Role role,
+                                                @RequestParam(required = false) Boolean disabled) {
+        logger.debug("Admin listing users afterId={}, limit={}, role={}, disabled={}", afterId, limit, role, disabled);
+        return userPage(afterId, limit, role, disabled);
+    }
+
+    // Stream every matching user as NDJSON straight off a database cursor; memory use does not
+    // grow with the table
+    @GetMapping(value = "/users/stream", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamUsers(@RequestParam(required = false) Role role,
+                                                             @RequestParam(required = false) Boolean disabled) {
+        logger.debug("Admin streaming users role={}, disabled={}", role, disabled);
+        StreamingResponseBody body = out -> {
+            BufferedOutputStream buffered = new BufferedOutputStream(out, STREAM_BUFFER_BYTES);
+            userService.streamUsers(role, disabled, user -> {
+                try {
+                    buffered.write(objectMapper.writeValueAsBytes(user));
+                    buffered.write('\n');
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+            buffered.flush();
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
     }
 
     // Get user by id
     @GetMapping("/users/{id}")
-    public ResponseEntity<User> getUser(@PathVariable Long id) {
-        logger.info("Admin get user by id={}", id);
-        Optional<User> opt = userService.getById(id);
+    public ResponseEntity<UserSummary> getUser(@PathVariable Long id) {
+        logger.debug("Admin get user by id={}", id);
+        Optional<UserSummary> opt = userService.getById(id);
         if (opt.isEmpty()) {
-            logger.warn("User not found id={}", id);
+            logger.debug("User not found id={}", id);
             return ResponseEntity.notFound().build();
         }
-        User u = opt.get();
-        u.setPassword(null);
-        return ResponseEntity.ok(u);
+        return ResponseEntity.ok(opt.get());
     }
 
     // Update user
     @PutMapping("/users/{id}")
-    public ResponseEntity<User> updateUser(@PathVariable Long id, @RequestBody User payload) {
-        logger.info("Admin updating user id={}", id);
+    public ResponseEntity<UserSummary> updateUser(@PathVariable Long id, @RequestBody User payload) {
         try {
             User saved = userService.update(id, payload);
-            saved.setPassword(null);
-            logger.info("User updated id={}", id);
-            return ResponseEntity.ok(saved);
+            return ResponseEntity.ok(UserSummary.of(saved));
         } catch (IllegalArgumentException ex) {
-            logger.warn("Update failed, user not found id={}", id);
+            logger.debug("Update failed, user not found id={}", id);
             return ResponseEntity.notFound().build();
         }
     }
@@ -81,38 +133,96 @@ public class AdminController {
     // Delete user
     @DeleteMapping("/users/{id}")
     public ResponseEntity<Void> deleteUser(@PathVariable Long id) {
-        logger.info("Admin deleting user id={}", id);
         userService.delete(id);
         return ResponseEntity.noContent().build();
     }
 
     // Disable/Enable user by email
     @PatchMapping("/users/status")
-    public ResponseEntity<User> changeUserStatus(@RequestParam String email, @RequestParam boolean disabled) {
-        logger.info("Admin changing status for email={}, disabled={}", email, disabled);
+    public ResponseEntity<UserSummary> changeUserStatus(@RequestParam String email, @RequestParam boolean disabled) {
         try {
-            User user = userService.getByEmail(email)
-                    .orElseThrow(() -> new IllegalArgumentException("User not found"));
-
-            user.setIsDisabled(disabled);
-            User saved = userService.update(user.getId().longValue(), user);
-            logger.info("User status changed email={}, disabled={}", email, disabled);
-            return ResponseEntity.ok(saved);
+            User saved = userService.changeStatus(email, disabled);
+            return ResponseEntity.ok(UserSummary.of(saved));
         } catch (IllegalArgumentException ex) {
-            logger.warn("Change status failed for email={}", email);
+            logger.debug("Change status failed, user not found email={}", email);
             return ResponseEntity.notFound().build();
         }
     }
 
+    // Bulk operations: the body selects users by ids, emails or a filter (role and/or disabled)
+
+    @PatchMapping("/users/bulk/status")
+    public ResponseEntity<?> bulkChangeStatus(@RequestParam boolean disabled, @RequestBody BulkUserRequest request,
+                                              HttpServletRequest httpRequest) {
+        try {
+            return ResponseEntity.ok(userService.bulkChangeStatus(request, disabled));
+        } catch (IllegalArgumentException ex) {
+            return bulkRejected("status change", ex, httpRequest);
+        }
+    }
+
+    @PatchMapping("/users/bulk/role")
+    public ResponseEntity<?> bulkChangeRole(@RequestParam Role role, @RequestBody BulkUserRequest request,
+                                            HttpServletRequest httpRequest) {
+        try {
+            return ResponseEntity.ok(userService.bulkChangeRole(request, role));
+        } catch (IllegalArgumentException ex) {
+            return bulkRejected("role change", ex, httpRequest);
+        }
+    }
+
+    @PostMapping("/users/bulk/delete")
+    public ResponseEntity<?> bulkDelete(@RequestBody BulkUserRequest request, HttpServletRequest httpRequest) {
+        try {
+            return ResponseEntity.ok(userService.bulkDelete(request));
+        } catch (IllegalArgumentException ex) {
+            return bulkRejected("delete", ex, httpRequest);
+        }
+    }
+
+    // a malformed selection is the caller's mistake: say what is wrong, but it is not worth a WARN line
+    private static ResponseEntity<ErrorResponse> bulkRejected(String operation, IllegalArgumentException ex,
+                                                              HttpServletRequest httpRequest) {
+        logger.debug("Bulk {} rejected: {}", operation, ex.getMessage());
+        ErrorResponse error = new ErrorResponse(HttpStatus.BAD_REQUEST, ex.getMessage(), httpRequest.getRequestURI());
+        return ResponseEntity.badRequest().body(error);
+    }
+
     @GetMapping("/users/disabled")
-    public ResponseEntity<List<User>> listDisabledUsers() {
-        logger.info("Admin listing disabled users");
-        List<User> disabledUsers = userService.getAll()
-                .stream()
-                .filter(User::getIsDisabled)
-                .peek(u -> u.setPassword(null))
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(disabledUsers);
+    public ResponseEntity<List<UserSummary>> listDisabledUsers(@RequestParam(required = false) Integer afterId,
+                                                        @RequestParam(required = false) Integer limit) {
+        logger.debug("Admin listing disabled users afterId={}, limit={}", afterId, limit);
+        return userPage(afterId, limit, null, true);
+    }
+
+    private ResponseEntity<List<UserSummary>> userPage(Integer afterId, Integer limit, Role role, Boolean disabled) {
+        int pageSize = Math.max(1, Math.min(limit != null ? limit : defaultPageSize, maxPageSize));
+        List<UserSummary> users = userService.listUsers(afterId, pageSize, role, disabled);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (users.size() == pageSize) {
+            response.header(NEXT_AFTER_ID_HEADER, String.valueOf(users.get(users.size() - 1).id()));
+        }
+        return response.body(users);
+    }
+
+    @GetMapping("/stats/principal-cache")
+    public ResponseEntity<CacheStatsResponse> principalCacheStats() {
+        return ResponseEntity.ok(userService.principalCacheStats());
+    }
+
+    @GetMapping("/stats/password-hashing")
+    public ResponseEntity<PasswordHashingStatsResponse> passwordHashingStats() {
+        return ResponseEntity.ok(passwordEncoder.stats());
+    }
+
+    @GetMapping("/stats/refresh-token-purge")
+    public ResponseEntity<PurgeStatsResponse> refreshTokenPurgeStats() {
+        return ResponseEntity.ok(refreshTokenPurgeJob.stats());
+    }
+
+    @GetMapping("/stats/audit")
+    public ResponseEntity<AuditStatsResponse> auditStats() {
+        return ResponseEntity.ok(auditService.stats());
     }
 
 }
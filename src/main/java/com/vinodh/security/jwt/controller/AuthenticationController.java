@@ -1,16 +1,29 @@
 package com.vinodh.security.jwt.controller;
 
 
+import com.vinodh.security.jwt.config.JwtAuthenticationFilter;
 import com.vinodh.security.jwt.dto.*;
+import com.vinodh.security.jwt.model.AuditEvent;
 import com.vinodh.security.jwt.model.RefreshToken;
 import com.vinodh.security.jwt.model.User;
+import com.vinodh.security.jwt.model.VerifiedToken;
+import com.vinodh.security.jwt.service.IAccessTokenRevocationService;
+import com.vinodh.security.jwt.service.IAuditService;
 import com.vinodh.security.jwt.service.IAuthenticationService;
+import com.vinodh.security.jwt.service.IJwtService;
+import com.vinodh.security.jwt.service.ILoginThrottleService;
 import com.vinodh.security.jwt.service.IRefreshTokenService;
+import com.vinodh.security.jwt.util.TokenShape;
+import io.jsonwebtoken.JwtException;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.slf4j.Logger;
@@ -28,60 +41,84 @@ public class AuthenticationController {
     @Autowired
     private IRefreshTokenService refreshTokenService;
 
+    @Autowired
+    private IJwtService jwtService;
+
+    @Autowired
+    private IAccessTokenRevocationService accessTokenRevocationService;
+
+    @Autowired
+    private ILoginThrottleService loginThrottleService;
+
+    @Autowired
+    private IAuditService auditService;
+
+    @Value("${app.jwt.maxTokenLength:4096}")
+    private int maxTokenLength;
+
     @PostMapping("/register")
     public ResponseEntity<User> register(@RequestBody RegisterRequest registerRequest) {
-        logger.info("Register request for email={}", registerRequest.getEmail());
-        User created = authenticationService.register(registerRequest);
-        logger.info("User registered id={}, email={}", created.getId(), created.getEmail());
-        return ResponseEntity.ok(created);
+        return ResponseEntity.ok(authenticationService.register(registerRequest));
     }
 
     @PostMapping("/login")
-    public ResponseEntity<JwtAuthenticationResponse> login(@RequestBody LoginRequest loginRequest) {
-        logger.info("Login attempt for email={}", loginRequest.getEmail());
-        try {
-            JwtAuthenticationResponse resp = authenticationService.login(loginRequest);
-            logger.info("Login successful for email={}", loginRequest.getEmail());
-            return ResponseEntity.ok(resp);
-        } catch (Exception ex) {
-            logger.warn("Login failed for email={} reason={}", loginRequest.getEmail(), ex.getMessage());
-            throw ex;
-        }
+    public ResponseEntity<JwtAuthenticationResponse> login(@RequestBody LoginRequest loginRequest, HttpServletRequest request) {
+        // before any user lookup or BCrypt work; throws LoginThrottledException (429)
+        loginThrottleService.checkLogin(request.getRemoteAddr(), loginRequest.getEmail());
+        // outcomes are audited by the authentication service
+        return ResponseEntity.ok(authenticationService.login(loginRequest));
     }
 
     @PostMapping("/refresh")
     public ResponseEntity<RefreshTokenResponse> refreshToken(@RequestBody RefreshTokenRequest request) {
-        logger.info("Refresh token request received");
         try {
-            RefreshTokenResponse response = refreshTokenService.refreshAccessToken(request.getRefreshToken());
-            logger.info("Refresh token successful for token={}", maskToken(request.getRefreshToken()));
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(refreshTokenService.refreshAccessToken(request.getRefreshToken()));
         } catch (RuntimeException ex) {
-            logger.warn("Refresh token failed: {}", ex.getMessage());
+            logger.debug("Refresh token failed: {}", ex.getMessage());
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(new RefreshTokenResponse(null));
         }
     }
 
     @PostMapping("/logout")
-    public ResponseEntity<LogoutResponse> logout(@RequestBody RefreshTokenRequest request) {
-        logger.info("Logout request for token={}", maskToken(request.getRefreshToken()));
+    public ResponseEntity<LogoutResponse> logout(@RequestBody RefreshTokenRequest request,
+                                                 @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
         RefreshToken refreshToken = refreshTokenService.findByToken(request.getRefreshToken())
                 .orElseThrow(() -> {
-                    logger.warn("Logout: refresh token not found");
+                    auditService.publish(AuditEvent.Action.LOGOUT, "not_found", null, null);
                     return new RuntimeException("Refresh token not found");
                 });
 
+        User user = refreshToken.getUser();
+        revokeAccessToken(authorization, user);
         refreshTokenService.revokeToken(refreshToken);
-        logger.info("Refresh token revoked for userId={}", refreshToken.getUser().getId());
+        auditService.publish(AuditEvent.Action.LOGOUT, AuditEvent.SUCCESS, user.getId(), user.getEmail());
 
         return ResponseEntity.ok(new LogoutResponse("Logout successful"));
     }
 
-    private String maskToken(String token) {
-        if (token == null) return "null";
-        if (token.length() <= 8) return "****";
-        return token.substring(0, 4) + "..." + token.substring(token.length() - 4);
+    // the access token sent with the logout stops working now rather than at its expiry. Only the
+    // owner of the refresh token can revoke it, so a logout cannot be used to revoke someone else's.
+    private void revokeAccessToken(String authorization, User user) {
+        if (authorization == null || !authorization.startsWith(JwtAuthenticationFilter.BEARER_PREFIX)) {
+            return;
+        }
+        String jwt = authorization.substring(JwtAuthenticationFilter.BEARER_PREFIX.length());
+        // same shape check as the filter: jjwt rejects an empty or garbage value with IllegalArgumentException
+        if (!TokenShape.isPlausibleJws(jwt, maxTokenLength)) {
+            logger.debug("Logout: access token is not a JWS, not revoked");
+            return;
+        }
+        try {
+            VerifiedToken verified = jwtService.verifyToken(jwt);
+            if (!user.getUsername().equals(verified.getSubject())) {
+                logger.debug("Logout: access token belongs to another user, not revoked userId={}", user.getId());
+                return;
+            }
+            accessTokenRevocationService.revoke(verified);
+        } catch (JwtException ex) {
+            logger.debug("Logout: access token not revocable: {}", ex.getMessage());
+        }
     }
 
 }
\ No newline at end of file
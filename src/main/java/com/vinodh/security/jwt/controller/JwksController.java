@@ -0,0 +1,26 @@
+package com.vinodh.security.jwt.controller;
+
+import com.vinodh.security.jwt.service.IJwtKeyService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.Map;
+
+@RestController
+public class JwksController {
+
+    @Autowired
+    private IJwtKeyService keyService;
+
+    // public keys for other services verifying our access tokens
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<Map<String, Object>> jwks() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofMinutes(5)).cachePublic())
+                .body(keyService.jwks());
+    }
+}
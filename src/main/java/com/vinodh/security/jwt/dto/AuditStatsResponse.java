@@ -0,0 +1,68 @@
+package com.vinodh.security.jwt.dto;
+
+public class AuditStatsResponse {
+    private final boolean enabled;
+    private final String overflow;
+    private final int queued;
+    private final int capacity;
+    private final long published;
+    private final long written;
+    private final long dropped;
+    private final long batches;
+    private final long writeErrors;
+    private final long rotations;
+
+    public AuditStatsResponse(boolean enabled, String overflow, int queued, int capacity, long published,
+                              long written, long dropped, long batches, long writeErrors, long rotations) {
+        this.enabled = enabled;
+        this.overflow = overflow;
+        this.queued = queued;
+        this.capacity = capacity;
+        this.published = published;
+        this.written = written;
+        this.dropped = dropped;
+        this.batches = batches;
+        this.writeErrors = writeErrors;
+        this.rotations = rotations;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String getOverflow() {
+        return overflow;
+    }
+
+    public int getQueued() {
+        return queued;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long getPublished() {
+        return published;
+    }
+
+    public long getWritten() {
+        return written;
+    }
+
+    public long getDropped() {
+        return dropped;
+    }
+
+    public long getBatches() {
+        return batches;
+    }
+
+    public long getWriteErrors() {
+        return writeErrors;
+    }
+
+    public long getRotations() {
+        return rotations;
+    }
+}
@@ -0,0 +1,34 @@
+package com.vinodh.security.jwt.dto;
+
+public class BulkItemResult {
+
+    public enum Status {
+        UPDATED,
+        DELETED,
+        UNCHANGED,
+        NOT_FOUND
+    }
+
+    // the id or email exactly as it was requested (the id for filter-selected users)
+    private final String key;
+    private final Integer id;
+    private final Status status;
+
+    public BulkItemResult(String key, Integer id, Status status) {
+        this.key = key;
+        this.id = id;
+        this.status = status;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+}
@@ -0,0 +1,52 @@
+package com.vinodh.security.jwt.dto;
+
+import java.util.List;
+
+public class BulkOperationResponse {
+    private final String operation;
+    private final long matched;
+    private final long changed;
+    private final long unchanged;
+    private final long notFound;
+    private final long refreshTokensRevoked;
+    private final List<BulkItemResult> results;
+
+    public BulkOperationResponse(String operation, long matched, long changed, long unchanged, long notFound,
+                                 long refreshTokensRevoked, List<BulkItemResult> results) {
+        this.operation = operation;
+        this.matched = matched;
+        this.changed = changed;
+        this.unchanged = unchanged;
+        this.notFound = notFound;
+        this.refreshTokensRevoked = refreshTokensRevoked;
+        this.results = results;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public long getMatched() {
+        return matched;
+    }
+
+    public long getChanged() {
+        return changed;
+    }
+
+    public long getUnchanged() {
+        return unchanged;
+    }
+
+    public long getNotFound() {
+        return notFound;
+    }
+
+    public long getRefreshTokensRevoked() {
+        return refreshTokensRevoked;
+    }
+
+    public List<BulkItemResult> getResults() {
+        return results;
+    }
+}
@@ -0,0 +1,60 @@
+package com.vinodh.security.jwt.dto;
+
+import com.vinodh.security.jwt.model.Role;
+
+import java.util.List;
+
+/**
+ * Selects the users a bulk admin operation applies to: explicit ids, explicit emails, or a filter.
+ * Exactly one selector may be set; a filter needs at least one criterion.
+ */
+public class BulkUserRequest {
+    private List<Integer> ids;
+    private List<String> emails;
+    private Filter filter;
+
+    public List<Integer> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Integer> ids) {
+        this.ids = ids;
+    }
+
+    public List<String> getEmails() {
+        return emails;
+    }
+
+    public void setEmails(List<String> emails) {
+        this.emails = emails;
+    }
+
+    public Filter getFilter() {
+        return filter;
+    }
+
+    public void setFilter(Filter filter) {
+        this.filter = filter;
+    }
+
+    public static class Filter {
+        private Role role;
+        private Boolean disabled;
+
+        public Role getRole() {
+            return role;
+        }
+
+        public void setRole(Role role) {
+            this.role = role;
+        }
+
+        public Boolean getDisabled() {
+            return disabled;
+        }
+
+        public void setDisabled(Boolean disabled) {
+            this.disabled = disabled;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.vinodh.security.jwt.dto;
+
+public class PasswordHashingStatsResponse {
+    private final int poolSize;
+    private final int activeCount;
+    private final int queueDepth;
+    private final int queueCapacity;
+    private final long completedCount;
+    private final long rejectedCount;
+    private final double averageHashMs;
+    private final double maxHashMs;
+
+    public PasswordHashingStatsResponse(int poolSize, int activeCount, int queueDepth, int queueCapacity,
+                                        long completedCount, long rejectedCount,
+                                        double averageHashMs, double maxHashMs) {
+        this.poolSize = poolSize;
+        this.activeCount = activeCount;
+        this.queueDepth = queueDepth;
+        this.queueCapacity = queueCapacity;
+        this.completedCount = completedCount;
+        this.rejectedCount = rejectedCount;
+        this.averageHashMs = averageHashMs;
+        this.maxHashMs = maxHashMs;
+    }
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    public int getActiveCount() {
+        return activeCount;
+    }
+
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public long getCompletedCount() {
+        return completedCount;
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount;
+    }
+
+    public double getAverageHashMs() {
+        return averageHashMs;
+    }
+
+    public double getMaxHashMs() {
+        return maxHashMs;
+    }
+}
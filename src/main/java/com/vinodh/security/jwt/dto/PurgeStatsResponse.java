@@ -0,0 +1,50 @@
+package com.vinodh.security.jwt.dto;
+
+public class PurgeStatsResponse {
+    private final long runs;
+    private final long batches;
+    private final long rowsPurged;
+    private final long lastRunRows;
+    private final double lastRunMs;
+    private final double averageBatchMs;
+    private final double maxBatchMs;
+
+    public PurgeStatsResponse(long runs, long batches, long rowsPurged, long lastRunRows,
+                              double lastRunMs, double averageBatchMs, double maxBatchMs) {
+        this.runs = runs;
+        this.batches = batches;
+        this.rowsPurged = rowsPurged;
+        this.lastRunRows = lastRunRows;
+        this.lastRunMs = lastRunMs;
+        this.averageBatchMs = averageBatchMs;
+        this.maxBatchMs = maxBatchMs;
+    }
+
+    public long getRuns() {
+        return runs;
+    }
+
+    public long getBatches() {
+        return batches;
+    }
+
+    public long getRowsPurged() {
+        return rowsPurged;
+    }
+
+    public long getLastRunRows() {
+        return lastRunRows;
+    }
+
+    public double getLastRunMs() {
+        return lastRunMs;
+    }
+
+    public double getAverageBatchMs() {
+        return averageBatchMs;
+    }
+
+    public double getMaxBatchMs() {
+        return maxBatchMs;
+    }
+}
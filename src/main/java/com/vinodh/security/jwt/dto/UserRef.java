@@ -0,0 +1,7 @@
+package com.vinodh.security.jwt.dto;
+
+import com.vinodh.security.jwt.model.Role;
+
+// the columns a bulk admin operation needs to decide, apply and invalidate a change
+public record UserRef(Integer id, String email, Role role, boolean disabled, int tokenVersion) {
+}
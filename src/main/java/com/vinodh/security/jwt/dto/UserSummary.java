@@ -0,0 +1,14 @@
+package com.vinodh.security.jwt.dto;
+
+import com.vinodh.security.jwt.model.Role;
+import com.vinodh.security.jwt.model.User;
+
+// what admin endpoints expose about a user; selected straight into this record, never the password
+public record UserSummary(Integer id, String firstName, String lastName, String email, Role role,
+                          boolean isDisabled, int tokenVersion) {
+
+    public static UserSummary of(User user) {
+        return new UserSummary(user.getId(), user.getFirstName(), user.getLastName(), user.getEmail(),
+                user.getRole(), user.getIsDisabled(), user.getTokenVersion());
+    }
+}
@@ -4,6 +4,8 @@ import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.security.SignatureException;
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -53,6 +55,46 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(error, error.getStatus());
     }
 
+    // Handle password hashing backpressure (login/register bursts)
+    @ExceptionHandler(PasswordHashingRejectedException.class)
+    public ResponseEntity<ErrorResponse> handleHashingRejected(PasswordHashingRejectedException ex, HttpServletRequest request) {
+        logger.warn("Password hashing rejected for request {}", request.getRequestURI());
+        ErrorResponse error = new ErrorResponse(
+                HttpStatus.SERVICE_UNAVAILABLE,
+                ex.getMessage(),
+                request.getRequestURI()
+        );
+        return ResponseEntity.status(error.getStatus())
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(error);
+    }
+
+    // Handle login throttling (per-address / per-account attempt budgets)
+    @ExceptionHandler(LoginThrottledException.class)
+    public ResponseEntity<ErrorResponse> handleLoginThrottled(LoginThrottledException ex, HttpServletRequest request) {
+        logger.debug("Login throttled for request {}", request.getRequestURI());
+        ErrorResponse error = new ErrorResponse(
+                HttpStatus.TOO_MANY_REQUESTS,
+                ex.getMessage(),
+                request.getRequestURI()
+        );
+        return ResponseEntity.status(error.getStatus())
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(ex.getRetryAfterSeconds()))
+                .body(error);
+    }
+
+    // Handle unique constraint violations, e.g. registering an email that already has an account
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ErrorResponse> handleDataIntegrity(DataIntegrityViolationException ex, HttpServletRequest request) {
+        logger.warn("Constraint violation for request {}: {}", request.getRequestURI(), ex.getMostSpecificCause().getMessage());
+        ErrorResponse error = new ErrorResponse(
+                HttpStatus.CONFLICT,
+                "Resource already exists",
+                request.getRequestURI()
+        );
+        return new ResponseEntity<>(error, error.getStatus());
+    }
+
     // Handle all other exceptions
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleAll(Exception ex, HttpServletRequest request) {
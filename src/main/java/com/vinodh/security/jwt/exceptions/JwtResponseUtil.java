@@ -1,28 +1,117 @@
 package com.vinodh.security.jwt.exceptions;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.http.HttpStatus;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Writes {@link ErrorResponse} bodies from the security layer. Each status/message pair is rendered
+ * once into the bytes before and after the path, so a rejection copies those around the escaped
+ * request URI into one array and writes it to the output stream; no serializer runs per request.
+ */
 public class JwtResponseUtil {
 
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final String PATH_PLACEHOLDER = "@path@";
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    // status -> message -> template; a handful of fixed messages, so this stays tiny
+    private static final Map<HttpStatus, Map<String, Template>> TEMPLATES = new ConcurrentHashMap<>();
+
     public static void sendError(HttpServletRequest request,
                                  HttpServletResponse response,
                                  HttpStatus status,
                                  String message) throws IOException {
-        ErrorResponse errorResponse = new ErrorResponse(
-                status,
-                message,
-                request.getRequestURI()
-        );
-
-        ObjectMapper objectMapper = new ObjectMapper();
+        Map<String, Template> byMessage = TEMPLATES.get(status);
+        Template template = byMessage != null ? byMessage.get(message) : null;
+        if (template == null) {
+            template = TEMPLATES.computeIfAbsent(status, key -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(message, key -> Template.render(status, message));
+        }
+        byte[] body = template.body(request.getRequestURI());
 
         response.setStatus(status.value());
         response.setContentType("application/json");
-        response.getWriter().write(objectMapper.writeValueAsString(errorResponse));
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private static final class Template {
+
+        private final byte[] prefix;
+        private final byte[] suffix;
+
+        private Template(byte[] prefix, byte[] suffix) {
+            this.prefix = prefix;
+            this.suffix = suffix;
+        }
+
+        // same JSON as serializing the ErrorResponse, split where the path goes
+        static Template render(HttpStatus status, String message) {
+            String json;
+            try {
+                json = OBJECT_MAPPER.writeValueAsString(new ErrorResponse(status, message, PATH_PLACEHOLDER));
+            } catch (JsonProcessingException ex) {
+                throw new IllegalStateException("Unable to render error body for " + status, ex);
+            }
+            int at = json.indexOf(PATH_PLACEHOLDER);
+            return new Template(
+                    json.substring(0, at).getBytes(StandardCharsets.UTF_8),
+                    json.substring(at + PATH_PLACEHOLDER.length()).getBytes(StandardCharsets.UTF_8));
+        }
+
+        byte[] body(String path) {
+            if (path == null) {
+                path = "";
+            }
+            if (!isPlainAscii(path)) {
+                return escaped(path);
+            }
+            byte[] body = new byte[prefix.length + path.length() + suffix.length];
+            System.arraycopy(prefix, 0, body, 0, prefix.length);
+            for (int i = 0; i < path.length(); i++) {
+                body[prefix.length + i] = (byte) path.charAt(i);
+            }
+            System.arraycopy(suffix, 0, body, prefix.length + path.length(), suffix.length);
+            return body;
+        }
+
+        // rare: quotes, backslashes, control or non-ASCII characters in the URI
+        private byte[] escaped(String path) {
+            StringBuilder out = new StringBuilder(path.length() + 16);
+            for (int i = 0; i < path.length(); i++) {
+                char c = path.charAt(i);
+                if (c == '"' || c == '\\') {
+                    out.append('\\').append(c);
+                } else if (c < 0x20) {
+                    out.append("\\u00").append((char) HEX[c >> 4]).append((char) HEX[c & 0xF]);
+                } else {
+                    out.append(c);
+                }
+            }
+            byte[] middle = out.toString().getBytes(StandardCharsets.UTF_8);
+            byte[] body = new byte[prefix.length + middle.length + suffix.length];
+            System.arraycopy(prefix, 0, body, 0, prefix.length);
+            System.arraycopy(middle, 0, body, prefix.length, middle.length);
+            System.arraycopy(suffix, 0, body, prefix.length + middle.length, suffix.length);
+            return body;
+        }
+
+        private static boolean isPlainAscii(String path) {
+            for (int i = 0; i < path.length(); i++) {
+                char c = path.charAt(i);
+                if (c < 0x20 || c > 0x7E || c == '"' || c == '\\') {
+                    return false;
+                }
+            }
+            return true;
+        }
     }
 }
@@ -0,0 +1,16 @@
+package com.vinodh.security.jwt.exceptions;
+
+public class LoginThrottledException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public LoginThrottledException(long retryAfterSeconds) {
+        // thrown per rejected attempt under attack, so skip the stack trace
+        super("Too many login attempts", null, false, false);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
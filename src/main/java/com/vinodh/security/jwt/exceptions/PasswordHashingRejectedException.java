@@ -0,0 +1,7 @@
+package com.vinodh.security.jwt.exceptions;
+
+public class PasswordHashingRejectedException extends RuntimeException {
+    public PasswordHashingRejectedException(String message) {
+        super(message);
+    }
+}
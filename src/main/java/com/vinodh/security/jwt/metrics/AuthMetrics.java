@@ -0,0 +1,216 @@
+package com.vinodh.security.jwt.metrics;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timers and counters for the authentication pipeline. Every meter is registered up front, so
+ * recording is a field read plus {@code Timer.record(long, TimeUnit)} or {@code Counter.increment()}:
+ * no tag arrays, lambdas or {@code Timer.Sample}s on the request path. With
+ * {@code app.metrics.enabled=false} nothing is registered, {@link #start()} does not read the clock
+ * and every record call is a single boolean check.
+ */
+@Component
+public class AuthMetrics {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuthMetrics.class);
+
+    // why a request was turned away; stage and reason become tags of auth.rejections
+    public enum Rejection {
+        ACCESS_EXPIRED("filter", "expired"),
+        ACCESS_MALFORMED("filter", "malformed"),
+        ACCESS_BAD_SIGNATURE("filter", "bad_signature"),
+        ACCESS_REVOKED("filter", "revoked"),
+        ACCESS_STALE("filter", "stale"),
+        LOGIN_BAD_CREDENTIALS("login", "bad_credentials"),
+        LOGIN_DISABLED("login", "disabled"),
+        LOGIN_THROTTLED("login", "throttled"),
+        REFRESH_NOT_FOUND("refresh", "not_found"),
+        REFRESH_EXPIRED("refresh", "expired"),
+        REFRESH_REVOKED("refresh", "revoked"),
+        REFRESH_DISABLED("refresh", "disabled");
+
+        private final String stage;
+        private final String reason;
+
+        Rejection(String stage, String reason) {
+            this.stage = stage;
+            this.reason = reason;
+        }
+
+        public String reason() {
+            return reason;
+        }
+    }
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.metrics.enabled:true}")
+    private boolean enabled;
+
+    private Timer jwtVerify;
+    private Timer userLookup;
+    private Timer passwordEncode;
+    private Timer passwordMatches;
+    private Timer refreshLookup;
+    private Timer accessTokenMint;
+    private Timer refreshTokenMint;
+    private Counter passwordRejected;
+    private Counter userLookupSkipped;
+    private Counter auditWritten;
+    private Counter auditDropped;
+    private final Map<Rejection, Counter> rejections = new EnumMap<>(Rejection.class);
+
+    @PostConstruct
+    void init() {
+        if (!enabled || meterRegistry == null) {
+            enabled = false;
+            logger.info("Authentication metrics disabled");
+            return;
+        }
+        jwtVerify = timer("auth.jwt.verify", "Access token parse and signature/expiry verification in the filter");
+        userLookup = timer("auth.user.lookup", "User load by email on a principal cache miss");
+        passwordEncode = timer("auth.password.hash", "BCrypt work on the hashing pool", "operation", "encode");
+        passwordMatches = timer("auth.password.hash", "BCrypt work on the hashing pool", "operation", "matches");
+        refreshLookup = timer("auth.refresh.lookup", "Refresh token lookup by digest");
+        accessTokenMint = timer("auth.token.mint", "Token issue", "token", "access");
+        refreshTokenMint = timer("auth.token.mint", "Token issue", "token", "refresh");
+        passwordRejected = Counter.builder("auth.password.rejected")
+                .description("Hashes refused because the hashing queue was full")
+                .register(meterRegistry);
+        userLookupSkipped = Counter.builder("auth.user.lookup.skipped")
+                .description("User loads answered by the known-email filter without a query")
+                .register(meterRegistry);
+        auditWritten = Counter.builder("auth.audit.events")
+                .description("Audit events by fate")
+                .tag("result", "written")
+                .register(meterRegistry);
+        auditDropped = Counter.builder("auth.audit.events")
+                .description("Audit events by fate")
+                .tag("result", "dropped")
+                .register(meterRegistry);
+        for (Rejection rejection : Rejection.values()) {
+            rejections.put(rejection, Counter.builder("auth.rejections")
+                    .description("Requests rejected by the authentication pipeline")
+                    .tags("stage", rejection.stage, "reason", rejection.reason)
+                    .register(meterRegistry));
+        }
+    }
+
+    private Timer timer(String name, String description, String... tags) {
+        return Timer.builder(name).description(description).tags(tags).register(meterRegistry);
+    }
+
+    // start of a timed section; pass the value back to the matching record method
+    public long start() {
+        return enabled ? System.nanoTime() : 0L;
+    }
+
+    public void recordJwtVerify(long start) {
+        record(jwtVerify, start);
+    }
+
+    public void recordUserLookup(long start) {
+        record(userLookup, start);
+    }
+
+    public void recordPasswordEncode(long nanos) {
+        if (enabled) {
+            passwordEncode.record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void recordPasswordMatches(long nanos) {
+        if (enabled) {
+            passwordMatches.record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void passwordRejected() {
+        if (enabled) {
+            passwordRejected.increment();
+        }
+    }
+
+    public void userLookupSkipped() {
+        if (enabled) {
+            userLookupSkipped.increment();
+        }
+    }
+
+    public void recordRefreshLookup(long start) {
+        record(refreshLookup, start);
+    }
+
+    public void recordAccessTokenMint(long start) {
+        record(accessTokenMint, start);
+    }
+
+    public void recordRefreshTokenMint(long start) {
+        record(refreshTokenMint, start);
+    }
+
+    public void reject(Rejection rejection) {
+        if (enabled) {
+            rejections.get(rejection).increment();
+        }
+    }
+
+    // caches and pools are bound once at startup by their owners
+    public void monitorCache(Cache<?, ?> cache, String name) {
+        if (enabled && cache != null) {
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+        }
+    }
+
+    public void auditWritten(int count) {
+        if (enabled) {
+            auditWritten.increment(count);
+        }
+    }
+
+    public void auditDropped(int count) {
+        if (enabled) {
+            auditDropped.increment(count);
+        }
+    }
+
+    public void monitorAuditQueue(BlockingQueue<?> queue) {
+        if (enabled) {
+            Gauge.builder("auth.audit.queue.size", queue, BlockingQueue::size)
+                    .description("Audit events waiting for the writer")
+                    .register(meterRegistry);
+        }
+    }
+
+    public void monitorExecutor(ExecutorService executor, String name) {
+        if (enabled) {
+            new ExecutorServiceMetrics(executor, name, Tags.empty()).bindTo(meterRegistry);
+        }
+    }
+
+    private void record(Timer timer, long start) {
+        if (enabled) {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.vinodh.security.jwt.model;
+
+/**
+ * One security-relevant fact: who did what to which account, and how it ended. Built on the request
+ * thread from values already at hand; rendering to JSON happens on the audit writer thread.
+ */
+public record AuditEvent(long timestamp, Action action, String outcome, Integer userId, String email,
+                         String actor, String clientIp, String detail) {
+
+    public static final String SUCCESS = "success";
+
+    public enum Action {
+        REGISTER("register"),
+        LOGIN("login"),
+        REFRESH("refresh"),
+        LOGOUT("logout"),
+        ACCESS_DENIED("access.denied"),
+        USER_CREATE("admin.user.create"),
+        USER_UPDATE("admin.user.update"),
+        USER_STATUS("admin.user.status"),
+        USER_DELETE("admin.user.delete"),
+        USER_BULK_STATUS("admin.user.bulk.status"),
+        USER_BULK_ROLE("admin.user.bulk.role"),
+        USER_BULK_DELETE("admin.user.bulk.delete");
+
+        private final String eventName;
+
+        Action(String eventName) {
+            this.eventName = eventName;
+        }
+
+        public String eventName() {
+            return eventName;
+        }
+    }
+}
@@ -1,20 +1,32 @@
 package com.vinodh.security.jwt.model;
 
+import com.vinodh.security.jwt.util.TokenDigest;
 import jakarta.persistence.*;
 import java.time.Instant;
 
 @Entity
-@Table(name = "refresh_tokens")
+@Table(name = "refresh_tokens", indexes = {
+        // purge: expiry_date < ? OR revoked
+        @Index(name = "idx_refresh_tokens_expiry_date", columnList = "expiry_date"),
+        @Index(name = "idx_refresh_tokens_revoked", columnList = "revoked")
+})
 public class RefreshToken {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(nullable = false, unique = true)
+    // only the SHA-256 digest is persisted, so a dump of the table holds no usable tokens.
+    // Nullable for rows written before digests (see RefreshTokenHashMigration).
+    @Column(name = "token_hash", unique = true, length = TokenDigest.LENGTH, columnDefinition = "binary(32)")
+    private byte[] tokenHash;
+
+    // raw value, known only right after the token is issued
+    @Transient
     private String token;
 
-    @OneToOne
+    // lazy: only the id is needed until the refresh-token service reloads the user, see RefreshTokenServiceImpl
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", referencedColumnName = "id")
     private User user;
 
@@ -29,6 +41,7 @@ public class RefreshToken {
 
     public RefreshToken(String token, User user, Instant expiryDate, boolean revoked) {
         this.token = token;
+        this.tokenHash = digestOf(token);
         this.user = user;
         this.expiryDate = expiryDate;
         this.revoked = revoked;
@@ -48,6 +61,19 @@ public class RefreshToken {
 
     public void setToken(String token) {
         this.token = token;
+        this.tokenHash = digestOf(token);
+    }
+
+    private static byte[] digestOf(String token) {
+        return token != null ? TokenDigest.sha256(token) : null;
+    }
+
+    public byte[] getTokenHash() {
+        return tokenHash;
+    }
+
+    public void setTokenHash(byte[] tokenHash) {
+        this.tokenHash = tokenHash;
     }
 
     public User getUser() {
@@ -82,8 +108,7 @@ public class RefreshToken {
     public String toString() {
         return "RefreshToken{" +
                 "id=" + id +
-                ", token='" + token + '\'' +
-                ", user=" + (user != null ? user.getUsername() : null) +
+                ", userId=" + (user != null ? user.getId() : null) +
                 ", expiryDate=" + expiryDate +
                 ", revoked=" + revoked +
                 '}';
@@ -0,0 +1,64 @@
+package com.vinodh.security.jwt.model;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+@Entity
+@Table(name = "revoked_access_tokens", indexes = {
+        @Index(name = "idx_revoked_access_tokens_expires_at", columnList = "expires_at"),
+        // sync poll: created_at >= ? ORDER BY created_at, id
+        @Index(name = "idx_revoked_access_tokens_created_at", columnList = "created_at")
+})
+public class RevokedAccessToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true, length = 64)
+    private String jti;
+
+    // the access token's own exp; the row is useless after that and gets purged
+    @Column(nullable = false)
+    private Instant expiresAt;
+
+    // stamped by the database on insert; other nodes poll on it (ids can commit out of order)
+    @Column(name = "created_at", insertable = false, updatable = false)
+    private Instant createdAt;
+
+    public RevokedAccessToken() {
+    }
+
+    public RevokedAccessToken(String jti, Instant expiresAt) {
+        this.jti = jti;
+        this.expiresAt = expiresAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getJti() {
+        return jti;
+    }
+
+    public void setJti(String jti) {
+        this.jti = jti;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+}
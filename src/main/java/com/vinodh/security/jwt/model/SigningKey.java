@@ -0,0 +1,32 @@
+package com.vinodh.security.jwt.model;
+
+import java.security.PrivateKey;
+import java.security.interfaces.RSAPublicKey;
+
+/**
+ * An RSA key pair from the key ring, identified by the {@code kid} JWT header.
+ */
+public final class SigningKey {
+
+    private final String keyId;
+    private final PrivateKey privateKey;
+    private final RSAPublicKey publicKey;
+
+    public SigningKey(String keyId, PrivateKey privateKey, RSAPublicKey publicKey) {
+        this.keyId = keyId;
+        this.privateKey = privateKey;
+        this.publicKey = publicKey;
+    }
+
+    public String getKeyId() {
+        return keyId;
+    }
+
+    public PrivateKey getPrivateKey() {
+        return privateKey;
+    }
+
+    public RSAPublicKey getPublicKey() {
+        return publicKey;
+    }
+}
@@ -1,6 +1,10 @@
 package com.vinodh.security.jwt.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -10,7 +14,17 @@ import java.util.List;
 
 
 @Entity
-@Table(name = "user")
+// mirrors db/migration; the schema is owned by the migrations, these only document it
+@Table(name = "user", indexes = {
+        @Index(name = "ux_user_email", columnList = "email", unique = true),
+        // keyset listing filtered by state or role
+        @Index(name = "idx_user_disabled_id", columnList = "is_disabled, id"),
+        @Index(name = "idx_user_role_id", columnList = "role, id")
+})
+// second-level cached, with email -> id resolutions in the natural-id cache; see IUserRepositoryCustomImpl
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
+@NaturalIdCache(region = "userEmails")
 public class User implements UserDetails {
 
     @Id
@@ -18,6 +32,10 @@ public class User implements UserDetails {
     private Integer id;
     private String firstName;
     private String lastName;
+
+    // admins can change it, so the natural id is mutable; Hibernate re-keys the cache on update
+    @NaturalId(mutable = true)
+    @Column(nullable = false)
     private String email;
     private String password;
     private Role role;
@@ -25,6 +43,18 @@ public class User implements UserDetails {
     @Column(name = "is_disabled", nullable = false)
     private boolean isDisabled = false;
 
+    // bumped whenever role or account state changes, carried in access tokens as the "ver" claim
+    @Column(name = "token_version", nullable = false)
+    private int tokenVersion = 0;
+
+    public int getTokenVersion() {
+        return tokenVersion;
+    }
+
+    public void setTokenVersion(int tokenVersion) {
+        this.tokenVersion = tokenVersion;
+    }
+
     public boolean getIsDisabled() {
         return isDisabled;
     }
@@ -0,0 +1,90 @@
+package com.vinodh.security.jwt.model;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Result of a single signature-checked parse of an access token.
+ * Immutable, so it can be handed around (and cached) without re-parsing the JWT.
+ */
+public final class VerifiedToken {
+
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_TOKEN_VERSION = "ver";
+
+    private final String tokenId;
+    private final String subject;
+    private final Date issuedAt;
+    private final Date expiration;
+    private final Map<String, Object> claims;
+
+    public VerifiedToken(Claims claims) {
+        this.tokenId = claims.getId();
+        this.subject = claims.getSubject();
+        this.issuedAt = claims.getIssuedAt() != null ? new Date(claims.getIssuedAt().getTime()) : null;
+        this.expiration = claims.getExpiration() != null ? new Date(claims.getExpiration().getTime()) : null;
+        this.claims = Collections.unmodifiableMap(new LinkedHashMap<>(claims));
+    }
+
+    // jti claim, used to revoke an individual access token
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public Date getIssuedAt() {
+        return issuedAt != null ? new Date(issuedAt.getTime()) : null;
+    }
+
+    public Date getExpiration() {
+        return expiration != null ? new Date(expiration.getTime()) : null;
+    }
+
+    public long getExpirationMillis() {
+        return expiration != null ? expiration.getTime() : Long.MAX_VALUE;
+    }
+
+    public Map<String, Object> getClaims() {
+        return claims;
+    }
+
+    public <T> T getClaim(String name, Class<T> type) {
+        Object value = claims.get(name);
+        return type.isInstance(value) ? type.cast(value) : null;
+    }
+
+    public Integer getUserId() {
+        Number value = getClaim(CLAIM_USER_ID, Number.class);
+        return value != null ? value.intValue() : null;
+    }
+
+    public Role getRole() {
+        String value = getClaim(CLAIM_ROLE, String.class);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Role.valueOf(value);
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    public Integer getTokenVersion() {
+        Number value = getClaim(CLAIM_TOKEN_VERSION, Number.class);
+        return value != null ? value.intValue() : null;
+    }
+
+    // true when the token carries everything needed to authorize without a user lookup
+    public boolean hasAuthorizationClaims() {
+        return getUserId() != null && getRole() != null && getTokenVersion() != null;
+    }
+}
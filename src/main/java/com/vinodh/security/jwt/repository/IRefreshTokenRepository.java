@@ -2,16 +2,32 @@ package com.vinodh.security.jwt.repository;
 
 import com.vinodh.security.jwt.model.RefreshToken;
 import com.vinodh.security.jwt.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface IRefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
     Optional<RefreshToken> findByUser(User user);
-    Optional<RefreshToken> findByToken(String token);
-    List<RefreshToken> findAllByUser(User user);
-    List<RefreshToken> findAllByExpiryDateBefore(Instant now);
+    Optional<RefreshToken> findByTokenHash(byte[] tokenHash);
+
+    // one chunk of purge candidates; deleted afterwards with a single bulk DELETE ... WHERE id IN
+    @Query("select t.id from RefreshToken t where t.expiryDate < :now or t.revoked = true order by t.id")
+    List<Long> findPurgeableIds(@Param("now") Instant now, Pageable page);
+
+    // flushed first and cleared after, so a token loaded earlier in the transaction cannot write revoked = false back
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update RefreshToken t set t.revoked = true where t.user.id in :userIds and t.revoked = false")
+    int revokeByUserIds(@Param("userIds") Collection<Integer> userIds);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from RefreshToken t where t.user.id in :userIds")
+    int deleteByUserIds(@Param("userIds") Collection<Integer> userIds);
 }
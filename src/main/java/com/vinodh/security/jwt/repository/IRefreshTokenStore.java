@@ -0,0 +1,26 @@
+package com.vinodh.security.jwt.repository;
+
+import com.vinodh.security.jwt.model.RefreshToken;
+import com.vinodh.security.jwt.model.User;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Storage SPI behind the refresh-token service. Selected with {@code app.refreshTokenStore.type}
+ * ({@code jpa} or {@code memory}).
+ */
+public interface IRefreshTokenStore {
+    Optional<RefreshToken> findByTokenHash(byte[] tokenHash);
+    Optional<RefreshToken> findByUser(User user);
+    RefreshToken save(RefreshToken token);
+    void delete(RefreshToken token);
+
+    // deletes at most {@code limit} expired or revoked tokens, returning how many were removed
+    int purgeExpiredAndRevoked(Instant now, int limit);
+
+    // bulk admin operations; both return the number of tokens affected
+    int revokeAllForUsers(Collection<Integer> userIds);
+    int deleteAllForUsers(Collection<Integer> userIds);
+}
@@ -0,0 +1,29 @@
+package com.vinodh.security.jwt.repository;
+
+import com.vinodh.security.jwt.model.RevokedAccessToken;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface IRevokedAccessTokenRepository extends JpaRepository<RevokedAccessToken, Long> {
+    boolean existsByJtiAndExpiresAtAfter(String jti, Instant now);
+
+    // keyset on (createdAt, id); the range on createdAt is served by idx_revoked_access_tokens_created_at
+    @Query("select r from RevokedAccessToken r where r.createdAt >= :from and (r.createdAt > :from or r.id > :afterId)"
+            + " and r.expiresAt > :now order by r.createdAt, r.id")
+    List<RevokedAccessToken> findCreatedSince(@Param("from") Instant from, @Param("afterId") long afterId,
+                                              @Param("now") Instant now, Pageable page);
+
+    @Transactional
+    @Modifying
+    @Query("delete from RevokedAccessToken r where r.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+}
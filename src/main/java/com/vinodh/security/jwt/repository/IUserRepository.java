@@ -1,15 +1,85 @@
 package com.vinodh.security.jwt.repository;
 
 
+import com.vinodh.security.jwt.dto.UserRef;
+import com.vinodh.security.jwt.dto.UserSummary;
 import com.vinodh.security.jwt.model.Role;
 import com.vinodh.security.jwt.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
-public interface IUserRepository extends JpaRepository<User, Integer> {
-    Optional<User> findByEmail(String email);
+public interface IUserRepository extends JpaRepository<User, Integer>, IUserRepositoryCustom {
     Optional<User> findByRole(Role role);
+
+    // admin reads select the exposed columns into records, so nothing is managed or dirty-checked
+
+    @Query("select new com.vinodh.security.jwt.dto.UserSummary(" +
+            "u.id, u.firstName, u.lastName, u.email, u.role, u.isDisabled, u.tokenVersion) " +
+            "from User u where u.id = :id")
+    Optional<UserSummary> findSummaryById(@Param("id") Integer id);
+
+    // keyset page by id, filtered in the database
+    @Query("select new com.vinodh.security.jwt.dto.UserSummary(" +
+            "u.id, u.firstName, u.lastName, u.email, u.role, u.isDisabled, u.tokenVersion) " +
+            "from User u where u.id > :afterId " +
+            "and (:role is null or u.role = :role) and (:disabled is null or u.isDisabled = :disabled) " +
+            "order by u.id")
+    List<UserSummary> findSummaryPage(@Param("afterId") Integer afterId, @Param("role") Role role,
+                                      @Param("disabled") Boolean disabled, Pageable page);
+
+    // rows come off a server-side cursor (useCursorFetch) in fetch-size batches
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.vinodh.security.jwt.dto.UserSummary(" +
+            "u.id, u.firstName, u.lastName, u.email, u.role, u.isDisabled, u.tokenVersion) " +
+            "from User u where (:role is null or u.role = :role) " +
+            "and (:disabled is null or u.isDisabled = :disabled) order by u.id")
+    Stream<UserSummary> streamSummaries(@Param("role") Role role, @Param("disabled") Boolean disabled);
+
+    // every email, for the in-memory known-email filter; consume inside a transaction
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("select u.email from User u")
+    Stream<String> streamEmails();
+
+    // stateless auth fallback once the in-memory minimum-version map has overflowed
+    @Query("select u.tokenVersion from User u where u.id = :id")
+    Optional<Integer> findTokenVersionById(@Param("id") Integer id);
+
+    // bulk admin operations: targets are resolved as narrow rows, changes are applied set-based
+
+    @Query("select new com.vinodh.security.jwt.dto.UserRef(u.id, u.email, u.role, u.isDisabled, u.tokenVersion) " +
+            "from User u where u.id in :ids")
+    List<UserRef> findRefsByIdIn(@Param("ids") Collection<Integer> ids);
+
+    @Query("select new com.vinodh.security.jwt.dto.UserRef(u.id, u.email, u.role, u.isDisabled, u.tokenVersion) " +
+            "from User u where u.email in :emails")
+    List<UserRef> findRefsByEmailIn(@Param("emails") Collection<String> emails);
+
+    @Query("select new com.vinodh.security.jwt.dto.UserRef(u.id, u.email, u.role, u.isDisabled, u.tokenVersion) " +
+            "from User u where u.id > :afterId " +
+            "and (:role is null or u.role = :role) and (:disabled is null or u.isDisabled = :disabled) " +
+            "order by u.id")
+    List<UserRef> findRefsByFilter(@Param("afterId") Integer afterId, @Param("role") Role role,
+                                   @Param("disabled") Boolean disabled, Pageable page);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update User u set u.isDisabled = :disabled, u.tokenVersion = u.tokenVersion + 1 where u.id in :ids")
+    int updateDisabled(@Param("ids") Collection<Integer> ids, @Param("disabled") boolean disabled);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update User u set u.role = :role, u.tokenVersion = u.tokenVersion + 1 where u.id in :ids")
+    int updateRole(@Param("ids") Collection<Integer> ids, @Param("role") Role role);
 }
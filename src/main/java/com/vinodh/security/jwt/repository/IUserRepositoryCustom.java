@@ -0,0 +1,10 @@
+package com.vinodh.security.jwt.repository;
+
+import com.vinodh.security.jwt.model.User;
+
+import java.util.Optional;
+
+public interface IUserRepositoryCustom {
+    // natural-id lookup: served from the second-level caches once the user has been loaded
+    Optional<User> findByEmail(String email);
+}
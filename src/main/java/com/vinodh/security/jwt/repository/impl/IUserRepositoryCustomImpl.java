@@ -0,0 +1,53 @@
+package com.vinodh.security.jwt.repository.impl;
+
+import com.vinodh.security.jwt.model.User;
+import com.vinodh.security.jwt.repository.IUserRepositoryCustom;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceUnit;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+
+/**
+ * {@code findByEmail} through Hibernate's natural-id API rather than a derived query: a query always
+ * runs SQL, while a natural-id load resolves email -> id from the natural-id cache and the user from
+ * the entity cache, so a repeat lookup issues no statement and takes no connection.
+ */
+public class IUserRepositoryCustomImpl implements IUserRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @PersistenceUnit
+    private EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public Optional<User> findByEmail(String email) {
+        if (email == null) {
+            return Optional.empty();
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return findByEmail(entityManager.unwrap(Session.class), email);
+        }
+        // no transaction to join: a short-lived session, which only opens a connection on a cache miss
+        try (Session session = entityManagerFactory.unwrap(SessionFactory.class).openSession()) {
+            return findByEmail(session, email);
+        }
+    }
+
+    private static Optional<User> findByEmail(Session session, String email) {
+        Optional<User> user = session.bySimpleNaturalId(User.class).loadOptional(email);
+        // the database compares emails case-insensitively, so a resolution cached under another
+        // spelling can outlive a rename; confirm with a query in that case
+        if (user.isPresent() && !user.get().getEmail().equalsIgnoreCase(email)) {
+            return session.createSelectionQuery("from User u where u.email = :email", User.class)
+                    .setParameter("email", email)
+                    .uniqueResultOptional();
+        }
+        return user;
+    }
+}
@@ -0,0 +1,333 @@
+package com.vinodh.security.jwt.repository.impl;
+
+import com.vinodh.security.jwt.model.RefreshToken;
+import com.vinodh.security.jwt.model.User;
+import com.vinodh.security.jwt.repository.IRefreshTokenStore;
+import com.vinodh.security.jwt.util.TokenDigest;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Repository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Refresh tokens held in memory for deployments where refresh latency matters more than durability.
+ * Reads are lock-free map lookups; writes are serialised so the indexes stay consistent. Entries are
+ * kept in expiry order: expired ones are removed by the purge job and, at capacity, the entry closest
+ * to expiry is evicted first. Optionally the store is snapshotted to disk and reloaded on startup.
+ * Of the owner only the id is kept: anything else about the user would go stale, so the service
+ * reloads the user by id when the token is used.
+ */
+@Repository
+@ConditionalOnProperty(name = "app.refreshTokenStore.type", havingValue = "memory")
+public class InMemoryRefreshTokenStore implements IRefreshTokenStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryRefreshTokenStore.class);
+
+    private static final int SNAPSHOT_MAGIC = 0x52544B32; // "RTK2", digests only
+
+    @Value("${app.refreshTokenStore.memory.maxEntries:1000000}")
+    private int maxEntries;
+
+    @Value("${app.refreshTokenStore.memory.snapshotPath:}")
+    private String snapshotPath;
+
+    private final Map<Long, RefreshToken> byId = new ConcurrentHashMap<>();
+    private final Map<TokenDigest, Long> idByToken = new ConcurrentHashMap<>();
+    private final Map<Integer, Long> idByUser = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<ExpiryKey> expiryOrder = new ConcurrentSkipListSet<>();
+    // ids of revoked entries, so the purge takes them without scanning the live ones
+    private final ConcurrentSkipListSet<Long> revokedIds = new ConcurrentSkipListSet<>();
+    private final AtomicLong ids = new AtomicLong();
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    @PostConstruct
+    void init() {
+        if (!snapshotPath.isBlank()) {
+            loadSnapshot(Path.of(snapshotPath));
+        }
+        logger.info("In-memory refresh token store ready entries={}, maxEntries={}", byId.size(), maxEntries);
+    }
+
+    @Override
+    public Optional<RefreshToken> findByTokenHash(byte[] tokenHash) {
+        return find(idByToken.get(TokenDigest.fromBytes(tokenHash)));
+    }
+
+    @Override
+    public Optional<RefreshToken> findByUser(User user) {
+        return find(idByUser.get(user.getId()));
+    }
+
+    private Optional<RefreshToken> find(Long id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        RefreshToken stored = byId.get(id);
+        // callers mutate what they get back, so never hand out the stored instance
+        return stored != null ? Optional.of(copy(stored)) : Optional.empty();
+    }
+
+    @Override
+    public RefreshToken save(RefreshToken token) {
+        writeLock.lock();
+        try {
+            if (token.getId() == null) {
+                token.setId(ids.incrementAndGet());
+            } else {
+                removeIndexes(byId.get(token.getId()));
+            }
+            RefreshToken stored = copy(token);
+            byId.put(stored.getId(), stored);
+            idByToken.put(TokenDigest.fromBytes(stored.getTokenHash()), stored.getId());
+            // one refresh token per user, as with the unique user_id column
+            Long previousForUser = idByUser.get(token.getUser().getId());
+            if (previousForUser != null && !previousForUser.equals(token.getId())) {
+                removeIndexes(byId.remove(previousForUser));
+            }
+            idByUser.put(stored.getUser().getId(), stored.getId());
+            expiryOrder.add(ExpiryKey.of(stored));
+            if (stored.isRevoked()) {
+                revokedIds.add(stored.getId());
+            }
+            while (byId.size() > maxEntries) {
+                ExpiryKey soonest = expiryOrder.pollFirst();
+                if (soonest == null) {
+                    break;
+                }
+                removeIndexes(byId.remove(soonest.id));
+            }
+            return token;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void delete(RefreshToken token) {
+        if (token.getId() == null) {
+            return;
+        }
+        writeLock.lock();
+        try {
+            removeIndexes(byId.remove(token.getId()));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // expired entries sit at the head of the expiry order and revoked ones in their own index, so a
+    // call touches at most limit entries under the lock however large the store is
+    @Override
+    public int purgeExpiredAndRevoked(Instant now, int limit) {
+        long nowMillis = now.toEpochMilli();
+        int removed = 0;
+        writeLock.lock();
+        try {
+            ExpiryKey head;
+            while (removed < limit && (head = firstOrNull()) != null && head.expiryMillis < nowMillis) {
+                removeIndexes(byId.remove(head.id));
+                removed++;
+            }
+            Long revokedId;
+            while (removed < limit && (revokedId = revokedIds.pollFirst()) != null) {
+                RefreshToken stored = byId.remove(revokedId);
+                if (stored != null) {
+                    removeIndexes(stored);
+                    removed++;
+                }
+            }
+        } finally {
+            writeLock.unlock();
+        }
+        return removed;
+    }
+
+    @Override
+    public int revokeAllForUsers(Collection<Integer> userIds) {
+        int revoked = 0;
+        writeLock.lock();
+        try {
+            for (Integer userId : userIds) {
+                Long id = idByUser.get(userId);
+                RefreshToken stored = id != null ? byId.get(id) : null;
+                if (stored != null && !stored.isRevoked()) {
+                    // replaced rather than mutated: lock-free readers copy stored instances
+                    RefreshToken revokedCopy = copy(stored);
+                    revokedCopy.setRevoked(true);
+                    byId.put(id, revokedCopy);
+                    revokedIds.add(id);
+                    revoked++;
+                }
+            }
+        } finally {
+            writeLock.unlock();
+        }
+        return revoked;
+    }
+
+    @Override
+    public int deleteAllForUsers(Collection<Integer> userIds) {
+        int deleted = 0;
+        writeLock.lock();
+        try {
+            for (Integer userId : userIds) {
+                Long id = idByUser.get(userId);
+                RefreshToken stored = id != null ? byId.remove(id) : null;
+                if (stored != null) {
+                    removeIndexes(stored);
+                    deleted++;
+                }
+            }
+        } finally {
+            writeLock.unlock();
+        }
+        return deleted;
+    }
+
+    @Scheduled(fixedDelayString = "${app.refreshTokenStore.memory.snapshotIntervalMs:60000}",
+            initialDelayString = "${app.refreshTokenStore.memory.snapshotIntervalMs:60000}")
+    public void snapshot() {
+        if (snapshotPath.isBlank()) {
+            return;
+        }
+        Path target = Path.of(snapshotPath);
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        List<RefreshToken> entries = new ArrayList<>(byId.values());
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(entries.size());
+            for (RefreshToken entry : entries) {
+                out.writeLong(entry.getId());
+                out.write(entry.getTokenHash());
+                out.writeInt(entry.getUser().getId());
+                out.writeLong(entry.getExpiryDate().toEpochMilli());
+                out.writeBoolean(entry.isRevoked());
+            }
+        } catch (IOException ex) {
+            logger.error("Refresh token snapshot failed path={}: {}", temp, ex.getMessage(), ex);
+            return;
+        }
+        try {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            logger.debug("Refresh token snapshot written entries={} path={}", entries.size(), target);
+        } catch (IOException ex) {
+            logger.error("Refresh token snapshot rename failed path={}: {}", target, ex.getMessage(), ex);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        snapshot();
+    }
+
+    private void loadSnapshot(Path path) {
+        if (!Files.exists(path)) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        List<long[]> rows = new ArrayList<>();
+        List<byte[]> tokenHashes = new ArrayList<>();
+        List<Boolean> revoked = new ArrayList<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC) {
+                logger.warn("Ignoring refresh token snapshot with unknown format path={}", path);
+                return;
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                long id = in.readLong();
+                byte[] tokenHash = new byte[TokenDigest.LENGTH];
+                in.readFully(tokenHash);
+                int userId = in.readInt();
+                long expiry = in.readLong();
+                boolean isRevoked = in.readBoolean();
+                if (expiry < now) {
+                    continue;
+                }
+                rows.add(new long[]{id, userId, expiry});
+                tokenHashes.add(tokenHash);
+                revoked.add(isRevoked);
+            }
+        } catch (IOException ex) {
+            logger.error("Unable to read refresh token snapshot path={}: {}", path, ex.getMessage(), ex);
+            return;
+        }
+
+        // tokens of users deleted since the snapshot are rejected when used and purged at expiry
+        long maxId = 0;
+        for (int i = 0; i < rows.size(); i++) {
+            long[] row = rows.get(i);
+            RefreshToken token = new RefreshToken(null, userRef((int) row[1]), Instant.ofEpochMilli(row[2]), revoked.get(i));
+            token.setTokenHash(tokenHashes.get(i));
+            token.setId(row[0]);
+            save(token);
+            maxId = Math.max(maxId, row[0]);
+        }
+        ids.set(Math.max(ids.get(), maxId));
+        logger.info("Loaded {} refresh tokens from snapshot path={}", byId.size(), path);
+    }
+
+    private ExpiryKey firstOrNull() {
+        return expiryOrder.isEmpty() ? null : expiryOrder.first();
+    }
+
+    private void removeIndexes(RefreshToken stored) {
+        if (stored == null) {
+            return;
+        }
+        idByToken.remove(TokenDigest.fromBytes(stored.getTokenHash()), stored.getId());
+        idByUser.remove(stored.getUser().getId(), stored.getId());
+        expiryOrder.remove(ExpiryKey.of(stored));
+        revokedIds.remove(stored.getId());
+    }
+
+    private static RefreshToken copy(RefreshToken source) {
+        // the raw token is never retained, only its digest, and of the user only the id
+        RefreshToken copy = new RefreshToken(null, userRef(source.getUser().getId()), source.getExpiryDate(), source.isRevoked());
+        copy.setTokenHash(source.getTokenHash());
+        copy.setId(source.getId());
+        return copy;
+    }
+
+    private static User userRef(Integer userId) {
+        User user = new User();
+        user.setId(userId);
+        return user;
+    }
+
+    private record ExpiryKey(long expiryMillis, long id) implements Comparable<ExpiryKey> {
+
+        static ExpiryKey of(RefreshToken token) {
+            return new ExpiryKey(token.getExpiryDate().toEpochMilli(), token.getId());
+        }
+
+        @Override
+        public int compareTo(ExpiryKey other) {
+            int byExpiry = Long.compare(expiryMillis, other.expiryMillis);
+            return byExpiry != 0 ? byExpiry : Long.compare(id, other.id);
+        }
+    }
+}
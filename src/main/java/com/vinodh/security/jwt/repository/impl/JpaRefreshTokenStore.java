@@ -0,0 +1,68 @@
+package com.vinodh.security.jwt.repository.impl;
+
+import com.vinodh.security.jwt.model.RefreshToken;
+import com.vinodh.security.jwt.model.User;
+import com.vinodh.security.jwt.repository.IRefreshTokenRepository;
+import com.vinodh.security.jwt.repository.IRefreshTokenStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+// durable default: refresh tokens live in the refresh_tokens table
+@Repository
+@ConditionalOnProperty(name = "app.refreshTokenStore.type", havingValue = "jpa", matchIfMissing = true)
+public class JpaRefreshTokenStore implements IRefreshTokenStore {
+
+    @Autowired
+    private IRefreshTokenRepository refreshTokenRepository;
+
+    @Override
+    public Optional<RefreshToken> findByTokenHash(byte[] tokenHash) {
+        return refreshTokenRepository.findByTokenHash(tokenHash);
+    }
+
+    @Override
+    public Optional<RefreshToken> findByUser(User user) {
+        return refreshTokenRepository.findByUser(user);
+    }
+
+    @Override
+    public RefreshToken save(RefreshToken token) {
+        return refreshTokenRepository.save(token);
+    }
+
+    @Override
+    public void delete(RefreshToken token) {
+        refreshTokenRepository.delete(token);
+    }
+
+    @Override
+    public int purgeExpiredAndRevoked(Instant now, int limit) {
+        List<Long> ids = refreshTokenRepository.findPurgeableIds(now, PageRequest.of(0, limit));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        refreshTokenRepository.deleteAllByIdInBatch(ids);
+        return ids.size();
+    }
+
+    // bulk statements need a transaction; this joins the caller's or, like the memory store, works without one
+    @Override
+    @Transactional
+    public int revokeAllForUsers(Collection<Integer> userIds) {
+        return userIds.isEmpty() ? 0 : refreshTokenRepository.revokeByUserIds(userIds);
+    }
+
+    @Override
+    @Transactional
+    public int deleteAllForUsers(Collection<Integer> userIds) {
+        return userIds.isEmpty() ? 0 : refreshTokenRepository.deleteByUserIds(userIds);
+    }
+}
@@ -0,0 +1,8 @@
+package com.vinodh.security.jwt.service;
+
+import com.vinodh.security.jwt.model.VerifiedToken;
+
+public interface IAccessTokenRevocationService {
+    void revoke(VerifiedToken token);
+    boolean isRevoked(VerifiedToken token);
+}
@@ -0,0 +1,11 @@
+package com.vinodh.security.jwt.service;
+
+import com.vinodh.security.jwt.dto.AuditStatsResponse;
+import com.vinodh.security.jwt.model.AuditEvent;
+
+public interface IAuditService {
+    // queues the event; client address and acting principal are taken from the current request
+    void publish(AuditEvent.Action action, String outcome, Integer userId, String email);
+    void publish(AuditEvent.Action action, String outcome, Integer userId, String email, String detail);
+    AuditStatsResponse stats();
+}
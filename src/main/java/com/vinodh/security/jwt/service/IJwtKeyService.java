@@ -0,0 +1,18 @@
+package com.vinodh.security.jwt.service;
+
+import com.vinodh.security.jwt.model.SigningKey;
+
+import java.util.Map;
+
+public interface IJwtKeyService {
+
+    // key used to sign new tokens
+    SigningKey activeKey();
+
+    // any key in the ring, including ones kept only for verification; null when unknown
+    SigningKey findKey(String keyId);
+
+    // public half of the ring as a JWK set
+    Map<String, Object> jwks();
+
+}
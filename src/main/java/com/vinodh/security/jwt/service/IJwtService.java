@@ -1,5 +1,6 @@
 package com.vinodh.security.jwt.service;
 
+import com.vinodh.security.jwt.model.VerifiedToken;
 import org.springframework.security.core.userdetails.UserDetails;
 
 public interface IJwtService {
@@ -9,4 +10,7 @@ public interface IJwtService {
 
     Boolean validateToken(String token, UserDetails userDetails);
 
+    // parses and verifies signature + expiry exactly once; throws JwtException when invalid
+    VerifiedToken verifyToken(String token);
+
 }
@@ -0,0 +1,9 @@
+package com.vinodh.security.jwt.service;
+
+public interface IKnownEmailService {
+    // false only when no account has this email; true may be a false positive
+    boolean mightExist(String email);
+    void added(String email);
+    void removed(String email);
+    void rebuild();
+}
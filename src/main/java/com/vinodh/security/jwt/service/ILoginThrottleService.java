@@ -0,0 +1,6 @@
+package com.vinodh.security.jwt.service;
+
+public interface ILoginThrottleService {
+    // throws LoginThrottledException when either the address or the account is out of attempts
+    void checkLogin(String clientIp, String email);
+}
@@ -1,19 +1,33 @@
 package com.vinodh.security.jwt.service;
 
+import com.vinodh.security.jwt.dto.BulkOperationResponse;
+import com.vinodh.security.jwt.dto.BulkUserRequest;
+import com.vinodh.security.jwt.dto.CacheStatsResponse;
+import com.vinodh.security.jwt.dto.UserSummary;
+import com.vinodh.security.jwt.model.Role;
 import com.vinodh.security.jwt.model.User;
 import org.springframework.security.core.userdetails.UserDetailsService;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface IUserService {
 
     UserDetailsService userDetailsService();
     User create(User user);
-    List<User> getAll();
-    Optional<User> getById(Long id);
+    List<UserSummary> listUsers(Integer afterId, int limit, Role role, Boolean disabled);
+    void streamUsers(Role role, Boolean disabled, Consumer<UserSummary> sink);
+    Optional<UserSummary> getById(Long id);
     User update(Long id, User user);
     void delete(Long id);
     Optional<User> getByEmail(String email);
+    User changeStatus(String email, boolean disabled);
+    CacheStatsResponse principalCacheStats();
+    boolean isStaleTokenVersion(Integer userId, int tokenVersion);
+
+    BulkOperationResponse bulkChangeStatus(BulkUserRequest request, boolean disabled);
+    BulkOperationResponse bulkChangeRole(BulkUserRequest request, Role role);
+    BulkOperationResponse bulkDelete(BulkUserRequest request);
 
 }
@@ -0,0 +1,127 @@
+package com.vinodh.security.jwt.service.impl;
+
+import com.vinodh.security.jwt.model.RevokedAccessToken;
+import com.vinodh.security.jwt.model.VerifiedToken;
+import com.vinodh.security.jwt.repository.IRevokedAccessTokenRepository;
+import com.vinodh.security.jwt.service.IAccessTokenRevocationService;
+import com.vinodh.security.jwt.util.BloomFilter;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Revoked access tokens (by jti). The common "not revoked" answer comes from two in-memory Bloom
+ * filter generations without any I/O; only a possible hit is confirmed against the
+ * revoked_access_tokens table. Generations rotate once per access-token TTL, so a revocation stays
+ * visible for at least as long as the token could live and memory is bounded by the number of
+ * revocations per TTL. Revocations made on other nodes are picked up by polling on the rows'
+ * database-stamped {@code created_at}. Each poll re-reads an overlap window, because ids and stamps
+ * are assigned before commit and a row can become visible after newer ones were already polled.
+ */
+@Service
+public class AccessTokenRevocationServiceImpl implements IAccessTokenRevocationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccessTokenRevocationServiceImpl.class);
+
+    private static final int SYNC_PAGE_SIZE = 1000;
+
+    @Autowired
+    private IRevokedAccessTokenRepository revokedAccessTokenRepository;
+
+    @Value("${app.jwtExpirationMs}")
+    private long jwtExpirationMs;
+
+    @Value("${app.accessTokenRevocation.expectedPerTtl:100000}")
+    private long expectedPerTtl;
+
+    @Value("${app.accessTokenRevocation.falsePositiveRate:0.001}")
+    private double falsePositiveRate;
+
+    @Value("${app.accessTokenRevocation.syncOverlapMs:10000}")
+    private long syncOverlapMs;
+
+    private volatile BloomFilter current;
+    private volatile BloomFilter previous;
+    private volatile long rotatedAt;
+    // polls re-read from here: the newest stamp seen minus syncOverlapMs, for inserts still uncommitted then
+    private volatile Instant syncFrom = Instant.EPOCH;
+
+    @PostConstruct
+    void init() {
+        current = newFilter();
+        previous = newFilter();
+        rotatedAt = System.currentTimeMillis();
+        sync();
+        logger.info("Access token revocation filter ready bits={}, syncFrom={}", current.bitSize(), syncFrom);
+    }
+
+    @Override
+    public void revoke(VerifiedToken token) {
+        String jti = token.getTokenId();
+        if (jti == null || token.getExpirationMillis() <= System.currentTimeMillis()) {
+            return;
+        }
+        current.put(jti);
+        try {
+            revokedAccessTokenRepository.save(new RevokedAccessToken(jti, Instant.ofEpochMilli(token.getExpirationMillis())));
+        } catch (DataIntegrityViolationException ex) {
+            logger.debug("Access token already revoked jti={}", jti);
+        }
+    }
+
+    @Override
+    public boolean isRevoked(VerifiedToken token) {
+        String jti = token.getTokenId();
+        if (jti == null) {
+            return false;
+        }
+        if (!current.mightContain(jti) && !previous.mightContain(jti)) {
+            return false;
+        }
+        // possible hit (or false positive): confirm exactly
+        return revokedAccessTokenRepository.existsByJtiAndExpiresAtAfter(jti, Instant.now());
+    }
+
+    @Scheduled(fixedDelayString = "${app.accessTokenRevocation.syncMs:5000}",
+            initialDelayString = "${app.accessTokenRevocation.syncMs:5000}")
+    public synchronized void sync() {
+        long now = System.currentTimeMillis();
+        if (now - rotatedAt >= jwtExpirationMs) {
+            previous = current;
+            current = newFilter();
+            rotatedAt = now;
+            int purged = revokedAccessTokenRepository.deleteExpired(Instant.ofEpochMilli(now));
+            logger.debug("Revocation filter rotated, purged {} expired revocations", purged);
+        }
+        Instant from = syncFrom;
+        Instant stamp = from;
+        long afterId = 0;
+        List<RevokedAccessToken> page;
+        do {
+            page = revokedAccessTokenRepository.findCreatedSince(
+                    stamp, afterId, Instant.ofEpochMilli(now), PageRequest.of(0, SYNC_PAGE_SIZE));
+            for (RevokedAccessToken revoked : page) {
+                current.put(revoked.getJti());
+                afterId = revoked.getId();
+                stamp = revoked.getCreatedAt();
+            }
+        } while (page.size() == SYNC_PAGE_SIZE);
+        Instant next = stamp.minusMillis(syncOverlapMs);
+        if (next.isAfter(from)) {
+            syncFrom = next;
+        }
+    }
+
+    private BloomFilter newFilter() {
+        return new BloomFilter(expectedPerTtl, falsePositiveRate);
+    }
+}
@@ -0,0 +1,306 @@
+package com.vinodh.security.jwt.service.impl;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.vinodh.security.jwt.dto.AuditStatsResponse;
+import com.vinodh.security.jwt.metrics.AuthMetrics;
+import com.vinodh.security.jwt.model.AuditEvent;
+import com.vinodh.security.jwt.service.IAuditService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Audit events go into a bounded ring buffer and are written by one background thread as NDJSON,
+ * a batch at a time, to a local file that rolls over at {@code maxFileBytes}. A request thread only
+ * builds the event record and offers it: no formatting, no file I/O. When the buffer is full the
+ * {@code overflow} policy decides: {@code drop} discards the event at once, {@code block} waits up to
+ * {@code blockTimeoutMs} for space and then discards it. Either way the event is counted in
+ * {@code dropped}, so a lossy audit trail is visible rather than silent. Batches are flushed to the
+ * OS after each write but not fsynced.
+ */
+@Service
+public class AuditServiceImpl implements IAuditService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditServiceImpl.class);
+
+    private static final String FILE_SUFFIX = ".ndjson";
+    private static final DateTimeFormatter ROLL_STAMP =
+            DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss.SSS").withZone(ZoneOffset.UTC);
+
+    enum Overflow { DROP, BLOCK }
+
+    @Autowired
+    private AuthMetrics authMetrics;
+
+    @Value("${app.audit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.audit.directory:logs/audit}")
+    private String directory;
+
+    @Value("${app.audit.fileName:audit}")
+    private String fileName;
+
+    @Value("${app.audit.maxFileBytes:104857600}")
+    private long maxFileBytes;
+
+    @Value("${app.audit.maxFiles:10}")
+    private int maxFiles;
+
+    @Value("${app.audit.queueCapacity:65536}")
+    private int queueCapacity;
+
+    @Value("${app.audit.batchSize:512}")
+    private int batchSize;
+
+    @Value("${app.audit.flushMs:200}")
+    private long flushMs;
+
+    @Value("${app.audit.overflow:drop}")
+    private String overflowPolicy;
+
+    @Value("${app.audit.blockTimeoutMs:50}")
+    private long blockTimeoutMs;
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private Overflow overflow;
+    private ArrayBlockingQueue<AuditEvent> queue;
+    private Thread writer;
+    private volatile boolean running;
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong writeErrors = new AtomicLong();
+    private final AtomicLong rotations = new AtomicLong();
+
+    // owned by the writer thread
+    private Path activeFile;
+    private FileOutputStream fileOut;
+    private JsonGenerator generator;
+
+    @PostConstruct
+    void init() {
+        overflow = Overflow.valueOf(overflowPolicy.trim().toUpperCase(Locale.ROOT));
+        if (!enabled) {
+            logger.info("Audit events disabled");
+            return;
+        }
+        activeFile = Path.of(directory, fileName + FILE_SUFFIX);
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        authMetrics.monitorAuditQueue(queue);
+        running = true;
+        writer = Thread.ofPlatform().name("audit-writer").daemon().start(this::drain);
+        logger.info("Audit events enabled file={}, queueCapacity={}, overflow={}, maxFileBytes={}, maxFiles={}",
+                activeFile.toAbsolutePath(), queueCapacity, overflow, maxFileBytes, maxFiles);
+    }
+
+    @Override
+    public void publish(AuditEvent.Action action, String outcome, Integer userId, String email) {
+        publish(action, outcome, userId, email, null);
+    }
+
+    @Override
+    public void publish(AuditEvent.Action action, String outcome, Integer userId, String email, String detail) {
+        if (!enabled) {
+            return;
+        }
+        AuditEvent event = new AuditEvent(System.currentTimeMillis(), action, outcome, userId, email,
+                currentActor(), currentClientIp(), detail);
+        published.increment();
+        if (queue.offer(event)) {
+            return;
+        }
+        if (overflow == Overflow.BLOCK) {
+            try {
+                if (queue.offer(event, blockTimeoutMs, TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        dropped.increment();
+        authMetrics.auditDropped(1);
+    }
+
+    @Override
+    public AuditStatsResponse stats() {
+        return new AuditStatsResponse(enabled, overflow.name().toLowerCase(Locale.ROOT),
+                queue != null ? queue.size() : 0, queueCapacity, published.sum(), written.get(),
+                dropped.sum(), batches.get(), writeErrors.get(), rotations.get());
+    }
+
+    private static String currentActor() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    private static String currentClientIp() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes instanceof ServletRequestAttributes servlet ? servlet.getRequest().getRemoteAddr() : null;
+    }
+
+    // writer thread: wait up to flushMs for the first event, then take whatever else is queued
+    private void drain() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                AuditEvent first = queue.poll(flushMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+            } catch (InterruptedException ex) {
+                // shutdown: fall through and write what is left
+                running = false;
+            }
+            queue.drainTo(batch, batchSize - batch.size());
+            if (!batch.isEmpty()) {
+                write(batch);
+                batch.clear();
+            }
+        }
+        closeFile();
+    }
+
+    private void write(List<AuditEvent> batch) {
+        try {
+            if (generator == null) {
+                openFile();
+            }
+            for (AuditEvent event : batch) {
+                writeEvent(event);
+            }
+            generator.flush();
+            written.addAndGet(batch.size());
+            batches.incrementAndGet();
+            authMetrics.auditWritten(batch.size());
+        } catch (IOException | RuntimeException ex) {
+            writeErrors.incrementAndGet();
+            dropped.add(batch.size());
+            authMetrics.auditDropped(batch.size());
+            logger.error("Audit write failed, dropped {} events: {}", batch.size(), ex.getMessage());
+            // reopen on the next batch
+            closeFile();
+            return;
+        }
+        try {
+            if (fileOut.getChannel().size() >= maxFileBytes) {
+                rotate();
+            }
+        } catch (IOException ex) {
+            writeErrors.incrementAndGet();
+            logger.error("Audit file rotation failed, continuing in {}: {}", activeFile, ex.getMessage());
+        }
+    }
+
+    private void writeEvent(AuditEvent event) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("ts", Instant.ofEpochMilli(event.timestamp()).toString());
+        generator.writeStringField("action", event.action().eventName());
+        generator.writeStringField("outcome", event.outcome());
+        if (event.userId() != null) {
+            generator.writeNumberField("userId", event.userId());
+        }
+        writeOptional("email", event.email());
+        writeOptional("actor", event.actor());
+        writeOptional("clientIp", event.clientIp());
+        writeOptional("detail", event.detail());
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    private void writeOptional(String field, String value) throws IOException {
+        if (value != null) {
+            generator.writeStringField(field, value);
+        }
+    }
+
+    private void openFile() throws IOException {
+        Files.createDirectories(activeFile.toAbsolutePath().getParent());
+        fileOut = new FileOutputStream(activeFile.toFile(), true);
+        generator = jsonFactory.createGenerator(new BufferedOutputStream(fileOut, 64 * 1024));
+        // one object per line; the newline is written explicitly
+        generator.setRootValueSeparator(null);
+    }
+
+    private void closeFile() {
+        if (generator != null) {
+            try {
+                generator.close();
+            } catch (IOException ex) {
+                logger.warn("Closing audit file failed: {}", ex.getMessage());
+            }
+        }
+        generator = null;
+        fileOut = null;
+    }
+
+    // the active file is renamed with a UTC timestamp; the oldest rolled files beyond maxFiles go
+    private void rotate() throws IOException {
+        closeFile();
+        Path rolled = activeFile.resolveSibling(fileName + "-" + ROLL_STAMP.format(Instant.now()) + FILE_SUFFIX);
+        Files.move(activeFile, rolled, StandardCopyOption.ATOMIC_MOVE);
+        rotations.incrementAndGet();
+        List<Path> rolledFiles;
+        try (Stream<Path> files = Files.list(activeFile.toAbsolutePath().getParent())) {
+            rolledFiles = files
+                    .filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(fileName + "-") && name.endsWith(FILE_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+        for (int i = 0; i < rolledFiles.size() - maxFiles; i++) {
+            Files.deleteIfExists(rolledFiles.get(i));
+        }
+        logger.debug("Audit file rolled to {}", rolled);
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+        if (writer.isAlive()) {
+            logger.warn("Audit writer still busy at shutdown, queued={}", queue.size());
+        }
+    }
+}
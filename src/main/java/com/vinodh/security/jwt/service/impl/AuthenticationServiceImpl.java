@@ -3,16 +3,23 @@ package com.vinodh.security.jwt.service.impl;
 import com.vinodh.security.jwt.dto.JwtAuthenticationResponse;
 import com.vinodh.security.jwt.dto.LoginRequest;
 import com.vinodh.security.jwt.dto.RegisterRequest;
+import com.vinodh.security.jwt.metrics.AuthMetrics;
+import com.vinodh.security.jwt.metrics.AuthMetrics.Rejection;
+import com.vinodh.security.jwt.model.AuditEvent;
 import com.vinodh.security.jwt.model.RefreshToken;
 import com.vinodh.security.jwt.model.Role;
 import com.vinodh.security.jwt.model.User;
 import com.vinodh.security.jwt.repository.IUserRepository;
+import com.vinodh.security.jwt.service.IAuditService;
 import com.vinodh.security.jwt.service.IAuthenticationService;
 import com.vinodh.security.jwt.service.IJwtService;
+import com.vinodh.security.jwt.service.IKnownEmailService;
 import com.vinodh.security.jwt.service.IRefreshTokenService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.slf4j.Logger;
@@ -33,9 +40,14 @@ public class AuthenticationServiceImpl implements IAuthenticationService {
     private  IJwtService jwtService;
     @Autowired
     private IRefreshTokenService refreshTokenService;
+    @Autowired
+    private AuthMetrics authMetrics;
+    @Autowired
+    private IKnownEmailService knownEmails;
+    @Autowired
+    private IAuditService auditService;
 
     public User register(RegisterRequest registerRequest) {
-        logger.info("Registering new user email={}", registerRequest.getEmail());
         User user = new User();
 
         user.setFirstName(registerRequest.getFirstName());
@@ -45,37 +57,42 @@ public class AuthenticationServiceImpl implements IAuthenticationService {
         user.setRole(Role.USER);
 
         User saved = userRepository.save(user);
-        logger.info("User registration completed id={}, email={}", saved.getId(), saved.getEmail());
+        knownEmails.added(saved.getEmail());
+        auditService.publish(AuditEvent.Action.REGISTER, AuditEvent.SUCCESS, saved.getId(), saved.getEmail());
         return saved;
     }
 
     public JwtAuthenticationResponse login(LoginRequest loginRequest) {
-        logger.info("Authenticating user email={}", loginRequest.getEmail());
-        authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(
-                loginRequest.getEmail(),
-                loginRequest.getPassword())
-        );
+        Authentication authentication;
+        try {
+            authentication = authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(
+                    loginRequest.getEmail(),
+                    loginRequest.getPassword())
+            );
+        } catch (BadCredentialsException ex) {
+            authMetrics.reject(Rejection.LOGIN_BAD_CREDENTIALS);
+            auditService.publish(AuditEvent.Action.LOGIN, Rejection.LOGIN_BAD_CREDENTIALS.reason(), null, loginRequest.getEmail());
+            throw ex;
+        }
 
-        var user = userRepository.findByEmail(loginRequest.getEmail()).orElseThrow(() -> {
-            logger.warn("Authentication failed: user not found email={}", loginRequest.getEmail());
-            return new IllegalArgumentException("Invalid username or password");
-        });
+        // the provider already loaded the user to check the password; reuse it instead of a second findByEmail
+        User user = (User) authentication.getPrincipal();
 
         // Check if user is disabled
         if (user.getIsDisabled()) {  // or user.isActive() depending on your field
-            logger.warn("Authentication blocked: user disabled email={}", loginRequest.getEmail());
+            authMetrics.reject(Rejection.LOGIN_DISABLED);
+            auditService.publish(AuditEvent.Action.LOGIN, Rejection.LOGIN_DISABLED.reason(), user.getId(), user.getEmail());
             throw new RuntimeException("User account is disabled. Please contact support.");
         }
 
         var jwt = jwtService.generateToken(user);
-        logger.debug("Access token generated for user email={}", loginRequest.getEmail());
 
         JwtAuthenticationResponse jwtAuthenticationResponse = new JwtAuthenticationResponse();
         jwtAuthenticationResponse.setAccessToken(jwt);
 
         RefreshToken refreshToken = refreshTokenService.createOrReuseRefreshToken(user);
         jwtAuthenticationResponse.setRefreshToken(refreshToken.getToken());
-        logger.info("Refresh token issued for user id={}", user.getId());
+        auditService.publish(AuditEvent.Action.LOGIN, AuditEvent.SUCCESS, user.getId(), user.getEmail());
 
         return jwtAuthenticationResponse;
     }
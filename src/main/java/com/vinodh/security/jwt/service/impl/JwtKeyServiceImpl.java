@@ -0,0 +1,220 @@
+package com.vinodh.security.jwt.service.impl;
+
+import com.vinodh.security.jwt.model.SigningKey;
+import com.vinodh.security.jwt.service.IJwtKeyService;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.KeyStore;
+import java.security.PrivateKey;
+import java.security.cert.Certificate;
+import java.security.cert.X509Certificate;
+import java.security.interfaces.RSAPublicKey;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Key ring loaded from PKCS12 keystore files. Every RSA key entry is a ring member whose alias
+ * is its {@code kid}; the active one signs, all of them verify. Rotating is a matter of adding the
+ * next key, switching {@code activeKid} once the new key is published, and removing the old key
+ * after the longest-lived token signed with it has expired. Keystores are re-read when they change.
+ */
+@Service
+public class JwtKeyServiceImpl implements IJwtKeyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtKeyServiceImpl.class);
+
+    @Value("${app.jwt.keystore.paths:}")
+    private String[] keystorePaths;
+
+    @Value("${app.jwt.keystore.password:}")
+    private String keystorePassword;
+
+    @Value("${app.jwt.keystore.activeKid:}")
+    private String activeKid;
+
+    private volatile KeyRing keyRing;
+
+    private volatile long lastModified;
+
+    @PostConstruct
+    void init() {
+        if (keystorePaths.length == 0) {
+            keyRing = ephemeralRing();
+            logger.warn("No app.jwt.keystore.paths configured; using an ephemeral signing key kid={}. " +
+                    "Tokens will not survive a restart or verify on other nodes.", keyRing.active.getKeyId());
+            return;
+        }
+        lastModified = keystoresLastModified();
+        keyRing = loadRing();
+    }
+
+    @Override
+    public SigningKey activeKey() {
+        return keyRing.active;
+    }
+
+    @Override
+    public SigningKey findKey(String keyId) {
+        return keyId != null ? keyRing.keys.get(keyId) : null;
+    }
+
+    @Override
+    public Map<String, Object> jwks() {
+        return keyRing.jwks;
+    }
+
+    @Scheduled(fixedDelayString = "${app.jwt.keystore.reloadMs:60000}")
+    public void reloadIfChanged() {
+        if (keystorePaths.length == 0) {
+            return;
+        }
+        long modified = keystoresLastModified();
+        if (modified == lastModified) {
+            return;
+        }
+        try {
+            keyRing = loadRing();
+            lastModified = modified;
+        } catch (RuntimeException ex) {
+            // keep serving with the previous ring rather than failing every request
+            logger.error("Key ring reload failed, keeping previous keys: {}", ex.getMessage(), ex);
+        }
+    }
+
+    private KeyRing loadRing() {
+        Map<String, SigningKey> keys = new LinkedHashMap<>();
+        Map<String, Date> notBefore = new LinkedHashMap<>();
+        char[] password = keystorePassword.toCharArray();
+        for (String location : keystorePaths) {
+            Path path = Path.of(location.trim());
+            try (InputStream in = Files.newInputStream(path)) {
+                KeyStore keyStore = KeyStore.getInstance("PKCS12");
+                keyStore.load(in, password);
+                Enumeration<String> aliases = keyStore.aliases();
+                while (aliases.hasMoreElements()) {
+                    String alias = aliases.nextElement();
+                    if (!keyStore.isKeyEntry(alias)) {
+                        continue;
+                    }
+                    Key key = keyStore.getKey(alias, password);
+                    Certificate certificate = keyStore.getCertificate(alias);
+                    if (!(key instanceof PrivateKey privateKey) || certificate == null
+                            || !(certificate.getPublicKey() instanceof RSAPublicKey publicKey)) {
+                        logger.warn("Skipping non-RSA key entry alias={} in {}", alias, path);
+                        continue;
+                    }
+                    if (keys.putIfAbsent(alias, new SigningKey(alias, privateKey, publicKey)) != null) {
+                        throw new IllegalStateException("Duplicate kid '" + alias + "' in " + path);
+                    }
+                    if (certificate instanceof X509Certificate x509) {
+                        notBefore.put(alias, x509.getNotBefore());
+                    }
+                }
+            } catch (IOException | GeneralSecurityException ex) {
+                throw new IllegalStateException("Unable to load keystore " + path + ": " + ex.getMessage(), ex);
+            }
+        }
+        if (keys.isEmpty()) {
+            throw new IllegalStateException("No RSA key entries found in " + Arrays.toString(keystorePaths));
+        }
+
+        SigningKey active;
+        if (activeKid != null && !activeKid.isBlank()) {
+            active = keys.get(activeKid);
+            if (active == null) {
+                throw new IllegalStateException("Active kid '" + activeKid + "' not found in key ring " + keys.keySet());
+            }
+        } else {
+            // without an explicit choice, sign with the most recently issued key
+            String newest = keys.keySet().stream()
+                    .max((a, b) -> notBefore.getOrDefault(a, new Date(0)).compareTo(notBefore.getOrDefault(b, new Date(0))))
+                    .orElseThrow();
+            active = keys.get(newest);
+        }
+        logger.info("Key ring loaded kids={}, active={}", keys.keySet(), active.getKeyId());
+        return new KeyRing(active, keys);
+    }
+
+    private KeyRing ephemeralRing() {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(2048);
+            KeyPair pair = generator.generateKeyPair();
+            SigningKey key = new SigningKey("ephemeral-" + UUID.randomUUID(), pair.getPrivate(), (RSAPublicKey) pair.getPublic());
+            return new KeyRing(key, Map.of(key.getKeyId(), key));
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("Unable to generate signing key", ex);
+        }
+    }
+
+    private long keystoresLastModified() {
+        long modified = 0;
+        for (String location : keystorePaths) {
+            try {
+                modified = Math.max(modified, Files.getLastModifiedTime(Path.of(location.trim())).toMillis());
+            } catch (IOException ex) {
+                logger.warn("Unable to stat keystore {}: {}", location, ex.getMessage());
+            }
+        }
+        return modified;
+    }
+
+    // immutable snapshot, swapped as a whole on reload
+    private static final class KeyRing {
+        private final SigningKey active;
+        private final Map<String, SigningKey> keys;
+        private final Map<String, Object> jwks;
+
+        private KeyRing(SigningKey active, Map<String, SigningKey> keys) {
+            this.active = active;
+            this.keys = Collections.unmodifiableMap(new LinkedHashMap<>(keys));
+            List<Map<String, Object>> jwkList = new ArrayList<>();
+            for (SigningKey key : keys.values()) {
+                jwkList.add(toJwk(key));
+            }
+            this.jwks = Map.of("keys", Collections.unmodifiableList(jwkList));
+        }
+
+        private static Map<String, Object> toJwk(SigningKey key) {
+            Map<String, Object> jwk = new LinkedHashMap<>();
+            jwk.put("kty", "RSA");
+            jwk.put("use", "sig");
+            jwk.put("alg", "RS256");
+            jwk.put("kid", key.getKeyId());
+            jwk.put("n", base64Url(key.getPublicKey().getModulus()));
+            jwk.put("e", base64Url(key.getPublicKey().getPublicExponent()));
+            return Collections.unmodifiableMap(jwk);
+        }
+
+        // JWK integers are unsigned big-endian, so drop the sign byte BigInteger may add
+        private static String base64Url(BigInteger value) {
+            byte[] bytes = value.toByteArray();
+            if (bytes.length > 1 && bytes[0] == 0) {
+                bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+            }
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        }
+    }
+}
@@ -1,14 +1,32 @@
 package com.vinodh.security.jwt.service.impl;
 
+import com.vinodh.security.jwt.metrics.AuthMetrics;
+import com.vinodh.security.jwt.model.SigningKey;
+import com.vinodh.security.jwt.model.User;
+import com.vinodh.security.jwt.model.VerifiedToken;
+import com.vinodh.security.jwt.service.IJwtKeyService;
 import com.vinodh.security.jwt.service.IJwtService;
+import com.vinodh.security.jwt.util.TokenDigest;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.security.SignatureException;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 import java.security.Key;
 import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -18,20 +36,125 @@ public class JwtServiceImpl implements IJwtService {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtServiceImpl.class);
 
-    private final Key SECRET_KEY = getSigning();
+    @Autowired
+    private IJwtKeyService keyService;
+
+    @Autowired
+    private AuthMetrics authMetrics;
+
+    @Value("${app.jwtExpirationMs}")
+    private long jwtExpirationMs;
+
+    @Value("${app.statelessAuth.enabled:false}")
+    private boolean statelessAuthEnabled;
+
+    // in stateless mode an access token must not outlive the allowed staleness of its role/state claims
+    @Value("${app.statelessAuth.maxStalenessMs:300000}")
+    private long statelessMaxStalenessMs;
+
+    @Value("${app.tokenCache.enabled:false}")
+    private boolean tokenCacheEnabled;
+
+    @Value("${app.tokenCache.maxSize:50000}")
+    private long tokenCacheMaxSize;
+
+    // successful verifications keyed by token digest; null when the cache is disabled
+    private Cache<TokenDigest, VerifiedToken> verifiedTokenCache;
+
+    @PostConstruct
+    void initTokenCache() {
+        if (!tokenCacheEnabled) {
+            return;
+        }
+        verifiedTokenCache = Caffeine.newBuilder()
+                .maximumSize(tokenCacheMaxSize)
+                .expireAfter(new Expiry<TokenDigest, VerifiedToken>() {
+                    // an entry never outlives the token's own exp claim
+                    @Override
+                    public long expireAfterCreate(TokenDigest key, VerifiedToken value, long currentTime) {
+                        long remainingMs = value.getExpirationMillis() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMs));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(TokenDigest key, VerifiedToken value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(TokenDigest key, VerifiedToken value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        authMetrics.monitorCache(verifiedTokenCache, "jwt.verified");
+        logger.info("Verified token cache enabled maxSize={}", tokenCacheMaxSize);
+    }
+
+    // parsers are immutable and thread-safe, so build once instead of per call;
+    // the verification key is picked from the key ring by the kid header
+    private final JwtParser jwtParser = Jwts.parserBuilder()
+            .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                // jjwt's adapter declares the raw JwsHeader type, so the override cannot be generic
+                @SuppressWarnings("rawtypes")
+                @Override
+                public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                    SigningKey key = keyService.findKey(header.getKeyId());
+                    if (key == null) {
+                        throw new SignatureException("Unknown signing key kid=" + header.getKeyId());
+                    }
+                    return key.getPublicKey();
+                }
+            })
+            .build();
 
     // generating token
     public String generateToken(UserDetails userDetails) {
-        String token = Jwts.builder()
+        long start = authMetrics.start();
+        long now = System.currentTimeMillis();
+        Date expiration = new Date(now + accessTokenTtlMs());
+        JwtBuilder builder = Jwts.builder()
+                .setId(UUID.randomUUID().toString())
                 .setSubject(userDetails.getUsername())
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 24))
-                .signWith(SECRET_KEY, SignatureAlgorithm.HS256)
+                .setIssuedAt(new Date(now))
+                .setExpiration(expiration);
+        if (userDetails instanceof User user) {
+            // authorization claims let the filter authorize without a user lookup (stateless mode)
+            builder.claim(VerifiedToken.CLAIM_USER_ID, user.getId())
+                    .claim(VerifiedToken.CLAIM_ROLE, user.getRole().name())
+                    .claim(VerifiedToken.CLAIM_TOKEN_VERSION, user.getTokenVersion());
+        }
+        SigningKey signingKey = keyService.activeKey();
+        String token = builder
+                .setHeaderParam(JwsHeader.KEY_ID, signingKey.getKeyId())
+                .signWith(signingKey.getPrivateKey(), SignatureAlgorithm.RS256)
                 .compact();
-        logger.debug("Generated JWT for user={}, expiresAt={}", userDetails.getUsername(), getExpirationDateFromToken(token));
+        authMetrics.recordAccessTokenMint(start);
+        logger.debug("Generated JWT for user={}, expiresAt={}", userDetails.getUsername(), expiration);
         return token;
     }
 
+    private long accessTokenTtlMs() {
+        return statelessAuthEnabled ? Math.min(jwtExpirationMs, statelessMaxStalenessMs) : jwtExpirationMs;
+    }
+
+    // single parse: signature and expiry are checked by the parser
+    public VerifiedToken verifyToken(String token) {
+        if (verifiedTokenCache == null) {
+            return new VerifiedToken(extractAllClaims(token));
+        }
+        TokenDigest key = TokenDigest.of(token);
+        VerifiedToken cached = verifiedTokenCache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        // only successful verifications are cached; failures throw before this point
+        VerifiedToken verified = new VerifiedToken(extractAllClaims(token));
+        verifiedTokenCache.put(key, verified);
+        return verified;
+    }
+
     // extracting userName
     public String extractUserName(String token) {
         return extractClaims(token,Claims::getSubject);
@@ -44,34 +167,24 @@ public class JwtServiceImpl implements IJwtService {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(SECRET_KEY)
-                .build()
+        return jwtParser
                 .parseClaimsJws(token)
                 .getBody();
     }
 
-    // signing key
-    private Key getSigning() {
-        return Keys.secretKeyFor(SignatureAlgorithm.HS256);
-    }
-
     // checking expiration
     public Date getExpirationDateFromToken(String token) {
         return extractClaims(token, Claims::getExpiration);
     }
 
-    private Boolean isTokenExpired(String token) {
-        final Date expiration = getExpirationDateFromToken(token);
-        return expiration.before(new Date());
-    }
-
     // validation token
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUserName(token);
-        boolean valid = (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        final VerifiedToken verified = verifyToken(token);
+        final String username = verified.getSubject();
+        boolean expired = verified.getExpirationMillis() < System.currentTimeMillis();
+        boolean valid = (username.equals(userDetails.getUsername()) && !expired);
         if (!valid) {
-            logger.debug("Token validation failed for user={}, expired={}", username, isTokenExpired(token));
+            logger.debug("Token validation failed for user={}, expired={}", username, expired);
         } else {
             logger.debug("Token validated for user={}", username);
         }
@@ -0,0 +1,284 @@
+package com.vinodh.security.jwt.service.impl;
+
+import com.vinodh.security.jwt.repository.IUserRepository;
+import com.vinodh.security.jwt.service.IKnownEmailService;
+import com.vinodh.security.jwt.util.BloomFilter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Bloom filter over the lower-cased emails of all accounts, so a lookup for an email nobody
+ * registered is answered without a query. Built from a streamed scan once the application is ready
+ * and rebuilt periodically, earlier if it fills past its sizing or many accounts were deleted
+ * (deleted emails stay in the filter until then and merely cost a query). Accounts created or renamed
+ * on other nodes are picked up by polling {@code user.updated_at}, which the database stamps on every
+ * write. Before a miss is answered, the filter catches up with every write committed since the last
+ * poll, so an existing account is never wrongly rejected. Until the first build every email "might
+ * exist".
+ */
+@Service
+public class KnownEmailServiceImpl implements IKnownEmailService {
+
+    private static final Logger logger = LoggerFactory.getLogger(KnownEmailServiceImpl.class);
+
+    private static final int SYNC_PAGE_SIZE = 1000;
+
+    // the column is not mapped on User (the database maintains it), so these go through JDBC
+    private static final String LATEST_STAMP = "SELECT MAX(updated_at) FROM user";
+    // keyset on (updated_at, id); the range on updated_at is served by idx_user_updated_at
+    private static final String CHANGED_SINCE = "SELECT id, email, updated_at FROM user"
+            + " WHERE updated_at >= ? AND (updated_at > ? OR id > ?)"
+            + " ORDER BY updated_at, id LIMIT ?";
+
+    private static final Timestamp EPOCH = new Timestamp(0);
+
+    @Autowired
+    private IUserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.knownEmails.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.knownEmails.expectedUsers:1000000}")
+    private long expectedUsers;
+
+    @Value("${app.knownEmails.falsePositiveRate:0.01}")
+    private double falsePositiveRate;
+
+    @Value("${app.knownEmails.rebuildMs:3600000}")
+    private long rebuildMs;
+
+    @Value("${app.knownEmails.syncOverlapMs:10000}")
+    private long syncOverlapMs;
+
+    @Value("${app.knownEmails.maxStalenessMs:0}")
+    private long maxStalenessMs;
+
+    private volatile BloomFilter filter;
+    // filter being built; adds go to both so none is lost in the swap
+    private volatile BloomFilter building;
+    private volatile long capacity;
+    private volatile long builtAt;
+    // polls re-read from here: the newest stamp seen minus syncOverlapMs, for writes still uncommitted then
+    private volatile Timestamp syncFrom = EPOCH;
+    private volatile long lastSyncStartedNanos;
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private final AtomicLong insertions = new AtomicLong();
+    private final AtomicLong deletions = new AtomicLong();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    @EventListener(ApplicationReadyEvent.class)
+    void onReady() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    @Override
+    public boolean mightExist(String email) {
+        BloomFilter current = filter;
+        if (current == null || email == null) {
+            return true;
+        }
+        String key = normalize(email);
+        if (current.mightContain(key)) {
+            return true;
+        }
+        // a miss only covers what this node wrote and what the last poll saw; catch up with the other
+        // nodes before trusting it. Concurrent misses share one poll.
+        try {
+            syncIfOlderThan(System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(maxStalenessMs));
+        } catch (RuntimeException ex) {
+            logger.warn("Known-email sync failed, falling back to the user query: {}", ex.getMessage());
+            return true;
+        }
+        return filter.mightContain(key);
+    }
+
+    @Override
+    public void added(String email) {
+        if (email == null) {
+            return;
+        }
+        String key = normalize(email);
+        put(key);
+        // a rebuild whose scan started before this commit would not see the row; add again after it
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    put(key);
+                }
+            });
+        }
+    }
+
+    @Override
+    public void removed(String email) {
+        deletions.incrementAndGet();
+    }
+
+    @Override
+    public void rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long start = System.currentTimeMillis();
+            long users = userRepository.count();
+            long size = Math.max(expectedUsers, users * 2);
+            BloomFilter next = new BloomFilter(size, falsePositiveRate);
+            building = next;
+            // rows written after this are caught by the poll, whether or not the scan sees them
+            Timestamp latest = jdbcTemplate.queryForObject(LATEST_STAMP, Timestamp.class);
+            long scanned = transactionTemplate.execute(status -> {
+                long count = 0;
+                try (Stream<String> emails = userRepository.streamEmails()) {
+                    for (String email : (Iterable<String>) emails::iterator) {
+                        if (email != null) {
+                            next.put(normalize(email));
+                            count++;
+                        }
+                    }
+                }
+                return count;
+            });
+            capacity = size;
+            insertions.set(scanned);
+            deletions.set(0);
+            builtAt = System.currentTimeMillis();
+            syncLock.lock();
+            try {
+                filter = next;
+                building = null;
+                syncFrom = latest != null ? minusOverlap(latest) : EPOCH;
+                syncLocked();
+            } finally {
+                syncLock.unlock();
+            }
+            logger.info("Known-email filter built emails={}, capacity={}, bits={} in {} ms",
+                    scanned, size, next.bitSize(), builtAt - start);
+        } catch (RuntimeException ex) {
+            building = null;
+            logger.error("Known-email filter build failed, lookups keep using the previous one: {}", ex.getMessage(), ex);
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.knownEmails.checkMs:60000}",
+            initialDelayString = "${app.knownEmails.checkMs:60000}")
+    public void maintain() {
+        if (!enabled || filter == null) {
+            return;
+        }
+        boolean due = System.currentTimeMillis() - builtAt >= rebuildMs;
+        // past its sizing the false-positive rate climbs; stale deletions also cost queries
+        boolean full = insertions.get() > capacity;
+        boolean stale = deletions.get() > insertions.get() / 10;
+        if (due || full || stale) {
+            logger.debug("Rebuilding known-email filter due={}, full={}, stale={}", due, full, stale);
+            rebuild();
+        }
+    }
+
+    // accounts created or renamed on other nodes since the last build or sync
+    @Scheduled(fixedDelayString = "${app.knownEmails.syncMs:5000}",
+            initialDelayString = "${app.knownEmails.syncMs:5000}")
+    public void sync() {
+        if (!enabled || filter == null) {
+            return;
+        }
+        syncLock.lock();
+        try {
+            syncLocked();
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    // polls unless one that started at or after startedAfter (System.nanoTime) has already finished;
+    // that poll saw every write committed before the caller asked
+    private void syncIfOlderThan(long startedAfter) {
+        syncLock.lock();
+        try {
+            if (lastSyncStartedNanos - startedAfter < 0) {
+                syncLocked();
+            }
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    private void syncLocked() {
+        lastSyncStartedNanos = System.nanoTime();
+        Timestamp from = syncFrom;
+        Timestamp stamp = from;
+        int afterId = 0;
+        List<Object[]> page;
+        do {
+            page = jdbcTemplate.query(CHANGED_SINCE,
+                    (rs, rowNum) -> new Object[]{rs.getInt(1), rs.getString(2), rs.getTimestamp(3)},
+                    stamp, stamp, afterId, SYNC_PAGE_SIZE);
+            for (Object[] row : page) {
+                if (row[1] != null) {
+                    put(normalize((String) row[1]));
+                }
+                afterId = (Integer) row[0];
+                stamp = (Timestamp) row[2];
+            }
+        } while (page.size() == SYNC_PAGE_SIZE);
+        Timestamp next = minusOverlap(stamp);
+        if (next.after(from)) {
+            syncFrom = next;
+        }
+    }
+
+    private Timestamp minusOverlap(Timestamp stamp) {
+        return new Timestamp(Math.max(0, stamp.getTime() - syncOverlapMs));
+    }
+
+    private void put(String key) {
+        BloomFilter current = filter;
+        if (current != null) {
+            // polls re-read their overlap, so only count emails the filter did not already have
+            if (!current.mightContain(key)) {
+                insertions.incrementAndGet();
+            }
+            current.put(key);
+        }
+        BloomFilter next = building;
+        if (next != null) {
+            next.put(key);
+        }
+    }
+
+    private static String normalize(String email) {
+        // the database matches emails case-insensitively, so the filter must too
+        return email.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,89 @@
+package com.vinodh.security.jwt.service.impl;
+
+import com.vinodh.security.jwt.exceptions.LoginThrottledException;
+import com.vinodh.security.jwt.metrics.AuthMetrics;
+import com.vinodh.security.jwt.metrics.AuthMetrics.Rejection;
+import com.vinodh.security.jwt.model.AuditEvent;
+import com.vinodh.security.jwt.service.IAuditService;
+import com.vinodh.security.jwt.service.ILoginThrottleService;
+import com.vinodh.security.jwt.util.TokenBucketLimiter;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Login attempt budgets per client address and per account, checked before the user lookup and the
+ * BCrypt comparison. The address budget slows a stuffing run from one source; the account budget
+ * protects a single account from a distributed one. Every attempt spends a token, successful or not.
+ */
+@Service
+public class LoginThrottleServiceImpl implements ILoginThrottleService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoginThrottleServiceImpl.class);
+
+    @Autowired
+    private AuthMetrics authMetrics;
+
+    @Autowired
+    private IAuditService auditService;
+
+    @Value("${app.loginThrottle.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.loginThrottle.perIp.capacity:20}")
+    private int perIpCapacity;
+
+    @Value("${app.loginThrottle.perIp.refillPerMinute:30}")
+    private int perIpRefillPerMinute;
+
+    @Value("${app.loginThrottle.perAccount.capacity:5}")
+    private int perAccountCapacity;
+
+    @Value("${app.loginThrottle.perAccount.refillPerMinute:5}")
+    private int perAccountRefillPerMinute;
+
+    @Value("${app.loginThrottle.maxKeys:100000}")
+    private long maxKeys;
+
+    private TokenBucketLimiter byIp;
+    private TokenBucketLimiter byAccount;
+
+    @PostConstruct
+    void init() {
+        if (!enabled) {
+            logger.info("Login throttling disabled");
+            return;
+        }
+        byIp = new TokenBucketLimiter(perIpCapacity, refillPeriod(perIpRefillPerMinute), maxKeys);
+        byAccount = new TokenBucketLimiter(perAccountCapacity, refillPeriod(perAccountRefillPerMinute), maxKeys);
+        logger.info("Login throttling enabled perIp={}/{}pm, perAccount={}/{}pm, maxKeys={}",
+                perIpCapacity, perIpRefillPerMinute, perAccountCapacity, perAccountRefillPerMinute, maxKeys);
+    }
+
+    @Override
+    public void checkLogin(String clientIp, String email) {
+        if (!enabled) {
+            return;
+        }
+        long waitNanos = clientIp != null ? byIp.tryAcquire(clientIp) : 0;
+        if (waitNanos == 0 && email != null) {
+            waitNanos = byAccount.tryAcquire(email.trim().toLowerCase(Locale.ROOT));
+        }
+        if (waitNanos > 0) {
+            authMetrics.reject(Rejection.LOGIN_THROTTLED);
+            auditService.publish(AuditEvent.Action.LOGIN, Rejection.LOGIN_THROTTLED.reason(), null, email);
+            throw new LoginThrottledException(Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1)));
+        }
+    }
+
+    private static Duration refillPeriod(int perMinute) {
+        return Duration.ofNanos(TimeUnit.MINUTES.toNanos(1) / Math.max(1, perMinute));
+    }
+}
@@ -0,0 +1,117 @@
+package com.vinodh.security.jwt.service.impl;
+
+import com.vinodh.security.jwt.dto.PurgeStatsResponse;
+import com.vinodh.security.jwt.repository.IRefreshTokenStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Deletes expired and revoked refresh tokens in bounded chunks. Each chunk is its own short
+ * statement, with a pause in between and a cap on chunks per run, so the purge never holds
+ * long locks on refresh_tokens or competes with login/refresh traffic.
+ */
+@Component
+public class RefreshTokenPurgeJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenPurgeJob.class);
+
+    @Autowired
+    private IRefreshTokenStore refreshTokenStore;
+
+    @Value("${app.refreshTokenPurge.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.refreshTokenPurge.batchSize:1000}")
+    private int batchSize;
+
+    @Value("${app.refreshTokenPurge.maxBatchesPerRun:100}")
+    private int maxBatchesPerRun;
+
+    @Value("${app.refreshTokenPurge.pauseBetweenBatchesMs:50}")
+    private long pauseBetweenBatchesMs;
+
+    private final LongAdder runs = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder rowsPurged = new LongAdder();
+    private final LongAdder batchNanos = new LongAdder();
+    private final AtomicLong maxBatchNanos = new AtomicLong();
+    private volatile long lastRunRows;
+    private volatile long lastRunNanos;
+
+    @Scheduled(fixedDelayString = "${app.refreshTokenPurge.intervalMs:300000}",
+            initialDelayString = "${app.refreshTokenPurge.intervalMs:300000}")
+    public void purge() {
+        if (!enabled) {
+            return;
+        }
+        long runStart = System.nanoTime();
+        // one cut-off per run, so rows expiring mid-run wait for the next one
+        Instant now = Instant.now();
+        long purged = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            long batchStart = System.nanoTime();
+            int deleted;
+            try {
+                deleted = refreshTokenStore.purgeExpiredAndRevoked(now, batchSize);
+            } catch (RuntimeException ex) {
+                logger.error("Refresh token purge batch failed after {} rows: {}", purged, ex.getMessage(), ex);
+                break;
+            }
+            recordBatch(System.nanoTime() - batchStart);
+            purged += deleted;
+            if (deleted < batchSize) {
+                break;
+            }
+            if (!pause()) {
+                break;
+            }
+        }
+        runs.increment();
+        rowsPurged.add(purged);
+        lastRunRows = purged;
+        lastRunNanos = System.nanoTime() - runStart;
+        if (purged > 0) {
+            logger.info("Purged {} expired/revoked refresh tokens in {} ms", purged, lastRunNanos / 1_000_000);
+        }
+    }
+
+    public PurgeStatsResponse stats() {
+        long batchCount = batches.sum();
+        double averageBatchMs = batchCount == 0 ? 0 : batchNanos.sum() / (double) batchCount / 1_000_000;
+        return new PurgeStatsResponse(
+                runs.sum(),
+                batchCount,
+                rowsPurged.sum(),
+                lastRunRows,
+                lastRunNanos / 1_000_000.0,
+                averageBatchMs,
+                maxBatchNanos.get() / 1_000_000.0);
+    }
+
+    private void recordBatch(long nanos) {
+        batches.increment();
+        batchNanos.add(nanos);
+        maxBatchNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    private boolean pause() {
+        if (pauseBetweenBatchesMs <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(pauseBetweenBatchesMs);
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
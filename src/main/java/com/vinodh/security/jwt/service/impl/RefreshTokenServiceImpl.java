@@ -1,32 +1,69 @@
 package com.vinodh.security.jwt.service.impl;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.vinodh.security.jwt.dto.RefreshTokenResponse;
+import com.vinodh.security.jwt.metrics.AuthMetrics;
+import com.vinodh.security.jwt.metrics.AuthMetrics.Rejection;
+import com.vinodh.security.jwt.model.AuditEvent;
 import com.vinodh.security.jwt.model.RefreshToken;
 import com.vinodh.security.jwt.model.User;
-import com.vinodh.security.jwt.repository.IRefreshTokenRepository;
+import com.vinodh.security.jwt.repository.IRefreshTokenStore;
 import com.vinodh.security.jwt.repository.IUserRepository;
+import com.vinodh.security.jwt.service.IAuditService;
 import com.vinodh.security.jwt.service.IRefreshTokenService;
+import com.vinodh.security.jwt.util.TokenDigest;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.security.SecureRandom;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.Base64;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Service
 public class RefreshTokenServiceImpl implements IRefreshTokenService {
 
     private static final Logger logger = LoggerFactory.getLogger(RefreshTokenServiceImpl.class);
 
+    private static final int TOKEN_BYTES = 32;
+
+    private static final long MIN_FLIGHT_TTL_MS = 1000;
+
+    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+
     @Value("${app.jwtRefreshExpirationMs}")
     private Long refreshTokenDurationMs;
 
     @Autowired
-    private IRefreshTokenRepository refreshTokenRepository;
+    private IRefreshTokenStore refreshTokenStore;
+
+    @Value("${app.refreshCoalescing.graceMs:2000}")
+    private long refreshGraceMs;
+
+    @Value("${app.refreshCoalescing.maxEntries:100000}")
+    private long refreshFlightsMaxEntries;
+
+    // refresh-token digest -> in-flight or just-completed refresh
+    private Cache<TokenDigest, CompletableFuture<RefreshTokenResponse>> refreshFlights;
+
+    @PostConstruct
+    void initRefreshFlights() {
+        refreshFlights = Caffeine.newBuilder()
+                .maximumSize(refreshFlightsMaxEntries)
+                // an in-flight entry must outlive its lookup + mint even when there is no grace window
+                .expireAfterWrite(Duration.ofMillis(Math.max(refreshGraceMs, MIN_FLIGHT_TTL_MS)))
+                .build();
+    }
 
     @Autowired
     private JwtServiceImpl jwtService;
@@ -37,42 +74,57 @@ public class RefreshTokenServiceImpl implements IRefreshTokenService {
     @Autowired
     private UserServiceImpl userDetailsService;
 
+    @Autowired
+    private AuthMetrics authMetrics;
+
+    @Autowired
+    private IAuditService auditService;
+
 
     @Override
+    @Transactional
     public RefreshToken createOrReuseRefreshToken(User user) {
-        Optional<RefreshToken> existing = refreshTokenRepository.findByUser(user);
-        if (existing.isPresent()) {
-            RefreshToken token = existing.get();
-            logger.debug("Found existing refresh token for userId={} tokenMasked={}", user.getId(), mask(token.getToken()));
-
-            // if expired → regenerate
-            if (token.getExpiryDate().isBefore(Instant.now())) {
-                token.setToken(UUID.randomUUID().toString());
-                token.setExpiryDate(Instant.now().plusMillis(refreshTokenDurationMs));
-                token.setRevoked(false);
-                logger.info("Refresh token expired; regenerated for userId={}", user.getId());
-            } else {
-                logger.debug("Reusing existing refresh token for userId={}", user.getId());
-            }
+        long start = authMetrics.start();
+        // only digests are stored, so the raw value cannot be handed out again: every login
+        // rotates the user's token, reusing the existing row when there is one
+        RefreshToken token = refreshTokenStore.findByUser(user).orElseGet(() -> {
+            RefreshToken newToken = new RefreshToken();
+            newToken.setUser(user);
+            return newToken;
+        });
+        boolean created = token.getId() == null;
+        token.setToken(generateTokenValue());
+        token.setExpiryDate(Instant.now().plusMillis(refreshTokenDurationMs));
+        token.setRevoked(false);
+        refreshTokenStore.save(token);
+        authMetrics.recordRefreshTokenMint(start);
+        logger.debug("{} refresh token for userId={}", created ? "Created new" : "Rotated", user.getId());
+        return token;
+    }
 
-            return refreshTokenRepository.save(token);
+    @Override
+    public Optional<RefreshToken> findByToken(String token) {
+        if (token == null) {
+            return Optional.empty();
         }
+        return refreshTokenStore.findByTokenHash(TokenDigest.sha256(token)).flatMap(this::withCurrentUser);
+    }
 
-        // else create new one
-        RefreshToken newToken = new RefreshToken();
-        newToken.setUser(user);
-        newToken.setToken(UUID.randomUUID().toString());
-        newToken.setExpiryDate(Instant.now().plusMillis(refreshTokenDurationMs));
-        newToken.setRevoked(false);
-        RefreshToken saved = refreshTokenRepository.save(newToken);
-        logger.info("Created new refresh token for userId={} tokenMasked={}", user.getId(), mask(saved.getToken()));
-        return saved;
+    // stores only hold the owner's id; the user is reloaded by id (from the second-level cache while
+    // warm) so role, tokenVersion and disabled state are current rather than as of login. A token
+    // whose user is gone is treated as not found.
+    private Optional<RefreshToken> withCurrentUser(RefreshToken token) {
+        return userRepository.findById(token.getUser().getId()).map(user -> {
+            token.setUser(user);
+            return token;
+        });
     }
 
-    @Override
-    public Optional<RefreshToken> findByToken(String token) {
-        logger.debug("Lookup refresh token tokenMasked={}", mask(token));
-        return refreshTokenRepository.findByToken(token);
+    // 256 bits from the CSPRNG, URL-safe so clients can put it in a cookie or body as-is
+    private static String generateTokenValue() {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        SECURE_RANDOM.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
     }
 
     @Override
@@ -83,7 +135,7 @@ public class RefreshTokenServiceImpl implements IRefreshTokenService {
         }
         if (token.getExpiryDate().isBefore(Instant.now())) {
             logger.warn("Refresh token expired for userId={}", token.getUser().getId());
-            refreshTokenRepository.delete(token);
+            refreshTokenStore.delete(token);
             throw new RuntimeException("Token expired. Login again.");
         }
         logger.debug("Refresh token verified for userId={}", token.getUser().getId());
@@ -93,35 +145,81 @@ public class RefreshTokenServiceImpl implements IRefreshTokenService {
     @Override
     public void revokeToken(RefreshToken token) {
         token.setRevoked(true);
-        refreshTokenRepository.save(token);
-        logger.info("Refresh token revoked for userId={} tokenMasked={}", token.getUser().getId(), mask(token.getToken()));
+        refreshTokenStore.save(token);
+        // no more access tokens from the grace window once the refresh token is revoked
+        refreshFlights.invalidate(TokenDigest.fromBytes(token.getTokenHash()));
+        logger.debug("Refresh token revoked for userId={}", token.getUser().getId());
     }
 
     public RefreshTokenResponse refreshAccessToken(String refreshTokenStr) {
-        logger.info("Refresh access token requested tokenMasked={}", mask(refreshTokenStr));
-        RefreshToken refreshToken = refreshTokenRepository.findByToken(refreshTokenStr)
+        if (refreshTokenStr == null) {
+            throw new RuntimeException("Refresh token not found");
+        }
+        // single flight: concurrent (and, within the grace window, repeated) refreshes of one
+        // token share a single lookup + mint
+        TokenDigest key = TokenDigest.of(refreshTokenStr);
+        CompletableFuture<RefreshTokenResponse> flight = new CompletableFuture<>();
+        CompletableFuture<RefreshTokenResponse> inFlight = refreshFlights.asMap().putIfAbsent(key, flight);
+        if (inFlight != null) {
+            logger.debug("Joining in-flight refresh");
+            return awaitFlight(inFlight);
+        }
+        try {
+            RefreshTokenResponse response = doRefreshAccessToken(refreshTokenStr, key);
+            flight.complete(response);
+            if (refreshGraceMs <= 0) {
+                refreshFlights.asMap().remove(key, flight);
+            }
+            return response;
+        } catch (RuntimeException ex) {
+            flight.completeExceptionally(ex);
+            refreshFlights.asMap().remove(key, flight);
+            throw ex;
+        }
+    }
+
+    private static RefreshTokenResponse awaitFlight(CompletableFuture<RefreshTokenResponse> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    private RefreshTokenResponse doRefreshAccessToken(String refreshTokenStr, TokenDigest key) {
+        long lookupStart = authMetrics.start();
+        Optional<RefreshToken> found = refreshTokenStore.findByTokenHash(key.toByteArray()).flatMap(this::withCurrentUser);
+        authMetrics.recordRefreshLookup(lookupStart);
+        RefreshToken refreshToken = found
                 .orElseThrow(() -> {
-                    logger.warn("Refresh token not found tokenMasked={}", mask(refreshTokenStr));
+                    authMetrics.reject(Rejection.REFRESH_NOT_FOUND);
+                    auditService.publish(AuditEvent.Action.REFRESH, Rejection.REFRESH_NOT_FOUND.reason(), null, null);
                     return new RuntimeException("Refresh token not found");
                 });
 
         // Verify expiration
         if (refreshToken.isRevoked() || refreshToken.getExpiryDate().isBefore(Instant.now())) {
-            logger.warn("Refresh token expired or revoked for userId={}", refreshToken.getUser().getId());
-            refreshTokenRepository.delete(refreshToken);
+            Rejection rejection = refreshToken.isRevoked() ? Rejection.REFRESH_REVOKED : Rejection.REFRESH_EXPIRED;
+            authMetrics.reject(rejection);
+            auditService.publish(AuditEvent.Action.REFRESH, rejection.reason(),
+                    refreshToken.getUser().getId(), refreshToken.getUser().getEmail());
+            refreshTokenStore.delete(refreshToken);
             throw new RuntimeException("Refresh token expired or revoked. Login again.");
         }
+        // reloaded by withCurrentUser, which bounds how stale stateless access tokens can get
         User user = refreshToken.getUser();
+        if (user.getIsDisabled()) {
+            authMetrics.reject(Rejection.REFRESH_DISABLED);
+            auditService.publish(AuditEvent.Action.REFRESH, Rejection.REFRESH_DISABLED.reason(), user.getId(), user.getEmail());
+            throw new RuntimeException("User account is disabled. Please contact support.");
+        }
         String newAccessToken = jwtService.generateToken(user);
-        logger.info("New access token generated for userId={}", user.getId());
+        auditService.publish(AuditEvent.Action.REFRESH, AuditEvent.SUCCESS, user.getId(), user.getEmail());
         return new RefreshTokenResponse(newAccessToken);
     }
 
-    private String mask(String token) {
-        if (token == null) return "null";
-        if (token.length() <= 8) return "****";
-        return token.substring(0,4) + "..." + token.substring(token.length()-4);
-    }
-
 
 }
@@ -1,19 +1,50 @@
 package com.vinodh.security.jwt.service.impl;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.vinodh.security.jwt.dto.BulkItemResult;
+import com.vinodh.security.jwt.dto.BulkOperationResponse;
+import com.vinodh.security.jwt.dto.BulkUserRequest;
+import com.vinodh.security.jwt.dto.CacheStatsResponse;
+import com.vinodh.security.jwt.dto.UserRef;
+import com.vinodh.security.jwt.dto.UserSummary;
+import com.vinodh.security.jwt.metrics.AuthMetrics;
+import com.vinodh.security.jwt.model.AuditEvent;
+import com.vinodh.security.jwt.model.Role;
 import com.vinodh.security.jwt.model.User;
+import com.vinodh.security.jwt.repository.IRefreshTokenStore;
 import com.vinodh.security.jwt.repository.IUserRepository;
+import com.vinodh.security.jwt.service.IAuditService;
+import com.vinodh.security.jwt.service.IKnownEmailService;
 import com.vinodh.security.jwt.service.IUserService;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import java.util.stream.Stream;
 
 @Service
 public class UserServiceImpl implements IUserService {
@@ -26,59 +57,379 @@ public class UserServiceImpl implements IUserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private IRefreshTokenStore refreshTokenStore;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private AuthMetrics authMetrics;
+
+    @Autowired
+    private IKnownEmailService knownEmails;
+
+    @Autowired
+    private IAuditService auditService;
+
+    @Value("${app.principalCache.maxSize:10000}")
+    private long principalCacheMaxSize;
+
+    @Value("${app.principalCache.ttlMs:60000}")
+    private long principalCacheTtlMs;
+
+    @Value("${app.statelessAuth.maxStalenessMs:300000}")
+    private long statelessMaxStalenessMs;
+
+    @Value("${app.statelessAuth.minTokenVersionsMaxSize:100000}")
+    private long minTokenVersionsMaxSize;
+
+    @Value("${app.bulkAdmin.chunkSize:500}")
+    private int bulkChunkSize;
+
+    // authenticated principals keyed by lower-cased email; only successful lookups are cached
+    private Cache<String, User> principalCache;
+
+    // userId -> minimum accepted token version after a local role/state change. Older tokens
+    // expire within the staleness window, so entries do not need to outlive it.
+    private Cache<Integer, Integer> minTokenVersions;
+
+    // System.nanoTime() until which a miss in minTokenVersions may hide an evicted entry
+    private volatile long tokenVersionFallbackUntil;
+    private volatile boolean tokenVersionFallbackArmed;
+
+    private final UserDetailsService userDetailsService = this::loadUserByUsername;
+
+    @PostConstruct
+    void initPrincipalCache() {
+        principalCache = Caffeine.newBuilder()
+                .maximumSize(principalCacheMaxSize)
+                .expireAfterWrite(Duration.ofMillis(principalCacheTtlMs))
+                .recordStats()
+                .build();
+        authMetrics.monitorCache(principalCache, "principal");
+        logger.info("Principal cache initialised maxSize={}, ttlMs={}", principalCacheMaxSize, principalCacheTtlMs);
+    }
+
+    @PostConstruct
+    void initMinTokenVersions() {
+        // a size eviction drops a revocation before its tokens have expired, so for one staleness
+        // window after it every miss is checked against the database instead of trusted
+        minTokenVersions = Caffeine.newBuilder()
+                .maximumSize(minTokenVersionsMaxSize)
+                .expireAfterWrite(Duration.ofMillis(statelessMaxStalenessMs))
+                .evictionListener((Integer userId, Integer version, RemovalCause cause) -> {
+                    if (cause == RemovalCause.SIZE) {
+                        tokenVersionFallbackUntil = System.nanoTime() + Duration.ofMillis(statelessMaxStalenessMs).toNanos();
+                        tokenVersionFallbackArmed = true;
+                    }
+                })
+                .build();
+    }
+
     @Override
     public UserDetailsService userDetailsService() {
-        return new UserDetailsService() {
-            @Override
-            public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-                logger.debug("Loading user by username={}", username);
-                return userRepository.findByEmail(username)
-                        .orElseThrow(() -> new UsernameNotFoundException("User not found"));
-            }
-        };
+        return userDetailsService;
+    }
+
+    private User loadUserByUsername(String username) throws UsernameNotFoundException {
+        User cached = principalCache.getIfPresent(cacheKey(username));
+        if (cached != null) {
+            return cached;
+        }
+        if (!knownEmails.mightExist(username)) {
+            // no such account: skip the query; a login still pays the provider's dummy BCrypt check
+            authMetrics.userLookupSkipped();
+            throw new UsernameNotFoundException("User not found");
+        }
+        logger.debug("Loading user by username={}", username);
+        long start = authMetrics.start();
+        Optional<User> found = userRepository.findByEmail(username);
+        authMetrics.recordUserLookup(start);
+        User user = found.orElseThrow(() -> new UsernameNotFoundException("User not found"));
+        principalCache.put(cacheKey(username), user);
+        return user;
+    }
+
+    @Override
+    public CacheStatsResponse principalCacheStats() {
+        CacheStats stats = principalCache.stats();
+        return new CacheStatsResponse(
+                principalCache.estimatedSize(),
+                stats.hitCount(),
+                stats.missCount(),
+                stats.evictionCount(),
+                stats.hitRate());
+    }
+
+    @Override
+    public boolean isStaleTokenVersion(Integer userId, int tokenVersion) {
+        Integer minVersion = minTokenVersions.getIfPresent(userId);
+        if (minVersion != null) {
+            return tokenVersion < minVersion;
+        }
+        if (tokenVersionFallbackArmed && System.nanoTime() - tokenVersionFallbackUntil < 0) {
+            // a deleted user has no version left, so all of its tokens are stale
+            return userRepository.findTokenVersionById(userId).map(current -> tokenVersion < current).orElse(true);
+        }
+        return false;
+    }
+
+    // invalidates access tokens issued before a role/state change
+    private void bumpTokenVersion(User user) {
+        user.setTokenVersion(user.getTokenVersion() + 1);
+    }
+
+    private void recordTokenVersion(User user) {
+        minTokenVersions.put(user.getId(), user.getTokenVersion());
+    }
+
+    private void evictPrincipal(String email) {
+        if (email != null) {
+            principalCache.invalidate(cacheKey(email));
+        }
+    }
+
+    private static String cacheKey(String email) {
+        // emails are matched case-insensitively by the database collation
+        return email.toLowerCase(Locale.ROOT);
     }
 
     // CRUD operations for admin use
 
     @Override
     public User create(User user) {
-        logger.info("Creating user email={}", user.getEmail());
         user.setId(null);
         if (user.getPassword() != null && !user.getPassword().isEmpty()) {
             user.setPassword(passwordEncoder.encode(user.getPassword()));
         }
         User saved = userRepository.save(user);
-        logger.info("User created id={}, email={}", saved.getId(), saved.getEmail());
+        knownEmails.added(saved.getEmail());
+        auditService.publish(AuditEvent.Action.USER_CREATE, AuditEvent.SUCCESS, saved.getId(), saved.getEmail(),
+                saved.getRole() != null ? saved.getRole().name() : null);
         return saved;
     }
 
     @Override
-    public List<User> getAll() {
-        logger.debug("Fetching all users");
-        return userRepository.findAll();
+    public List<UserSummary> listUsers(Integer afterId, int limit, Role role, Boolean disabled) {
+        logger.debug("Listing users afterId={}, limit={}, role={}, disabled={}", afterId, limit, role, disabled);
+        return userRepository.findSummaryPage(afterId != null ? afterId : 0, role, disabled, PageRequest.of(0, limit));
+    }
+
+    // the stream holds a cursor, so it has to be consumed inside the transaction
+    @Override
+    @Transactional(readOnly = true)
+    public void streamUsers(Role role, Boolean disabled, Consumer<UserSummary> sink) {
+        try (Stream<UserSummary> users = userRepository.streamSummaries(role, disabled)) {
+            users.forEach(sink);
+        }
     }
 
     @Override
-    public Optional<User> getById(Long id) {
+    public Optional<UserSummary> getById(Long id) {
         logger.debug("Fetching user by id={}", id);
-        return userRepository.findById(id.intValue());
+        return userRepository.findSummaryById(id.intValue());
     }
 
     @Override
     public User update(Long id, User payload) {
-        logger.info("Updating user id={}", id);
         User existing = userRepository.findById(id.intValue()).orElseThrow(() -> new IllegalArgumentException("User not found"));
+        String previousEmail = existing.getEmail();
+        evictPrincipal(previousEmail);
+        boolean claimsChanged = (payload.getEmail() != null && !payload.getEmail().equals(existing.getEmail()))
+                || (payload.getRole() != null && payload.getRole() != existing.getRole());
         if (payload.getFirstName() != null) existing.setFirstName(payload.getFirstName());
         if (payload.getLastName() != null) existing.setLastName(payload.getLastName());
         if (payload.getEmail() != null) existing.setEmail(payload.getEmail());
         if (payload.getRole() != null) existing.setRole(payload.getRole());
-        return userRepository.save(existing);
+        if (claimsChanged) bumpTokenVersion(existing);
+        User saved = userRepository.save(existing);
+        evictPrincipal(saved.getEmail());
+        if (!saved.getEmail().equals(previousEmail)) {
+            knownEmails.added(saved.getEmail());
+            knownEmails.removed(previousEmail);
+        }
+        if (claimsChanged) recordTokenVersion(saved);
+        auditService.publish(AuditEvent.Action.USER_UPDATE, AuditEvent.SUCCESS, saved.getId(), saved.getEmail());
+        return saved;
+    }
+
+    @Override
+    public User changeStatus(String email, boolean disabled) {
+        User existing = userRepository.findByEmail(email).orElseThrow(() -> new IllegalArgumentException("User not found"));
+        existing.setIsDisabled(disabled);
+        bumpTokenVersion(existing);
+        User saved = userRepository.save(existing);
+        evictPrincipal(saved.getEmail());
+        recordTokenVersion(saved);
+        auditService.publish(AuditEvent.Action.USER_STATUS, AuditEvent.SUCCESS, saved.getId(), saved.getEmail(),
+                disabled ? "disable" : "enable");
+        return saved;
     }
 
     @Override
     public void delete(Long id) {
-        logger.info("Deleting user id={}", id);
-        userRepository.deleteById(id.intValue());
+        userRepository.findById(id.intValue()).ifPresent(user -> {
+            // the refresh token references the user, so it has to go first
+            transactionTemplate.executeWithoutResult(status -> {
+                refreshTokenStore.deleteAllForUsers(List.of(user.getId()));
+                userRepository.deleteById(user.getId());
+            });
+            evictPrincipal(user.getEmail());
+            knownEmails.removed(user.getEmail());
+            minTokenVersions.put(user.getId(), Integer.MAX_VALUE);
+            auditService.publish(AuditEvent.Action.USER_DELETE, AuditEvent.SUCCESS, user.getId(), user.getEmail());
+        });
+    }
+
+    // Bulk admin operations. Targets are resolved and changed one chunk at a time: each chunk is a
+    // single transaction with one narrow SELECT, one set-based UPDATE/DELETE on user and one on the
+    // refresh tokens, so the work is a handful of statements per chunk rather than per user.
+
+    @Override
+    public BulkOperationResponse bulkChangeStatus(BulkUserRequest request, boolean disabled) {
+        return bulkApply(request, new BulkChange(disabled ? "disable" : "enable", AuditEvent.Action.USER_BULK_STATUS,
+                user -> user.disabled() != disabled,
+                ids -> {
+                    userRepository.updateDisabled(ids, disabled);
+                    return refreshTokenStore.revokeAllForUsers(ids);
+                },
+                false));
+    }
+
+    @Override
+    public BulkOperationResponse bulkChangeRole(BulkUserRequest request, Role role) {
+        if (role == null) {
+            throw new IllegalArgumentException("Role is required");
+        }
+        return bulkApply(request, new BulkChange("role:" + role.name(), AuditEvent.Action.USER_BULK_ROLE,
+                user -> user.role() != role,
+                ids -> {
+                    userRepository.updateRole(ids, role);
+                    return refreshTokenStore.revokeAllForUsers(ids);
+                },
+                false));
+    }
+
+    @Override
+    public BulkOperationResponse bulkDelete(BulkUserRequest request) {
+        return bulkApply(request, new BulkChange("delete", AuditEvent.Action.USER_BULK_DELETE,
+                user -> true,
+                ids -> {
+                    int tokens = refreshTokenStore.deleteAllForUsers(ids);
+                    userRepository.deleteAllByIdInBatch(ids);
+                    return tokens;
+                },
+                true));
+    }
+
+    // what a bulk operation changes; apply runs inside the chunk transaction and returns the
+    // number of refresh tokens revoked or deleted. Every changed user gets its own audit event.
+    private record BulkChange(String name, AuditEvent.Action auditAction, Predicate<UserRef> needsChange,
+                              ToIntFunction<List<Integer>> apply, boolean deletes) {
+    }
+
+    private BulkOperationResponse bulkApply(BulkUserRequest request, BulkChange change) {
+        boolean byIds = request.getIds() != null && !request.getIds().isEmpty();
+        boolean byEmails = request.getEmails() != null && !request.getEmails().isEmpty();
+        BulkUserRequest.Filter filter = request.getFilter();
+        boolean byFilter = filter != null;
+        if ((byIds ? 1 : 0) + (byEmails ? 1 : 0) + (byFilter ? 1 : 0) != 1) {
+            throw new IllegalArgumentException("Exactly one of ids, emails or filter is required");
+        }
+        if (byFilter && filter.getRole() == null && filter.getDisabled() == null) {
+            throw new IllegalArgumentException("Filter needs at least one criterion");
+        }
+
+        BulkTally tally = new BulkTally();
+        if (byIds) {
+            List<Integer> ids = request.getIds().stream().filter(Objects::nonNull).distinct().toList();
+            for (int from = 0; from < ids.size(); from += bulkChunkSize) {
+                List<Integer> chunk = ids.subList(from, Math.min(from + bulkChunkSize, ids.size()));
+                Map<Integer, UserRef> found = new HashMap<>();
+                applyChunk(change, () -> userRepository.findRefsByIdIn(chunk), tally)
+                        .forEach(user -> found.put(user.id(), user));
+                chunk.forEach(id -> tally.result(String.valueOf(id), found.get(id), change));
+            }
+        } else if (byEmails) {
+            // spellings that differ only in case are one account to the database, so they count once
+            List<String> emails = request.getEmails().stream().filter(Objects::nonNull)
+                    .map(UserServiceImpl::cacheKey).distinct().toList();
+            for (int from = 0; from < emails.size(); from += bulkChunkSize) {
+                List<String> chunk = emails.subList(from, Math.min(from + bulkChunkSize, emails.size()));
+                Map<String, UserRef> found = new HashMap<>();
+                applyChunk(change, () -> userRepository.findRefsByEmailIn(chunk), tally)
+                        .forEach(user -> found.put(cacheKey(user.email()), user));
+                chunk.forEach(email -> tally.result(email, found.get(email), change));
+            }
+        } else {
+            // keyset over ids, so rows changed by earlier chunks are never revisited
+            int afterId = 0;
+            List<UserRef> page;
+            do {
+                int cursor = afterId;
+                page = applyChunk(change, () -> userRepository.findRefsByFilter(
+                        cursor, filter.getRole(), filter.getDisabled(), PageRequest.of(0, bulkChunkSize)), tally);
+                for (UserRef user : page) {
+                    tally.result(String.valueOf(user.id()), user, change);
+                    afterId = user.id();
+                }
+            } while (page.size() == bulkChunkSize);
+        }
+        logger.debug("Bulk {} done changed={}, unchanged={}, notFound={}, refreshTokens={}",
+                change.name(), tally.changed, tally.unchanged, tally.notFound, tally.refreshTokens);
+        return new BulkOperationResponse(change.name(), tally.changed + tally.unchanged, tally.changed,
+                tally.unchanged, tally.notFound, tally.refreshTokens, tally.results);
+    }
+
+    // resolves one chunk and applies the change to the rows that need it, in one transaction;
+    // caches are invalidated only after the commit. Returns the rows as they were before the change.
+    private List<UserRef> applyChunk(BulkChange change, Supplier<List<UserRef>> lookup,
+                                     BulkTally tally) {
+        List<UserRef> changed = new ArrayList<>();
+        List<UserRef> found = transactionTemplate.execute(status -> {
+            List<UserRef> rows = lookup.get();
+            for (UserRef row : rows) {
+                if (change.needsChange().test(row)) {
+                    changed.add(row);
+                }
+            }
+            if (!changed.isEmpty()) {
+                tally.refreshTokens += change.apply().applyAsInt(changed.stream().map(UserRef::id).toList());
+            }
+            return rows;
+        });
+        for (UserRef user : changed) {
+            evictPrincipal(user.email());
+            if (change.deletes()) {
+                knownEmails.removed(user.email());
+            }
+            minTokenVersions.put(user.id(), change.deletes() ? Integer.MAX_VALUE : user.tokenVersion() + 1);
+            auditService.publish(change.auditAction(), AuditEvent.SUCCESS, user.id(), user.email(), change.name());
+        }
+        return found;
+    }
+
+    private static final class BulkTally {
+        final List<BulkItemResult> results = new ArrayList<>();
+        long changed;
+        long unchanged;
+        long notFound;
+        long refreshTokens;
+
+        void result(String key, UserRef user, BulkChange change) {
+            if (user == null) {
+                notFound++;
+                results.add(new BulkItemResult(key, null, BulkItemResult.Status.NOT_FOUND));
+            } else if (change.needsChange().test(user)) {
+                changed++;
+                results.add(new BulkItemResult(key, user.id(),
+                        change.deletes() ? BulkItemResult.Status.DELETED : BulkItemResult.Status.UPDATED));
+            } else {
+                unchanged++;
+                results.add(new BulkItemResult(key, user.id(), BulkItemResult.Status.UNCHANGED));
+            }
+        }
     }
 
     @Override
@@ -0,0 +1,63 @@
+package com.vinodh.security.jwt.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Per-key token buckets. A bucket is a single {@link AtomicLong} holding its theoretical arrival time
+ * (GCRA): a request is allowed while that time is no more than {@code capacity - 1} refill periods
+ * ahead of now, and moves it one period further with a CAS. No locks; contention on one key costs a
+ * CAS retry. Buckets live in a size-bounded Caffeine cache and are dropped once idle long enough to
+ * have refilled completely, so an evicted key loses nothing.
+ */
+public final class TokenBucketLimiter {
+
+    private static final Function<String, AtomicLong> NEW_BUCKET = key -> new AtomicLong();
+
+    private final long periodNanos;
+    private final long toleranceNanos;
+    private final long origin = System.nanoTime();
+    private final Cache<String, AtomicLong> buckets;
+
+    public TokenBucketLimiter(int capacity, Duration refillPeriod, long maxKeys) {
+        if (capacity < 1 || refillPeriod.isNegative() || refillPeriod.isZero()) {
+            throw new IllegalArgumentException("capacity must be >= 1 and refill period positive");
+        }
+        this.periodNanos = refillPeriod.toNanos();
+        this.toleranceNanos = (capacity - 1) * periodNanos;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(Duration.ofNanos(toleranceNanos + periodNanos))
+                .build();
+    }
+
+    /**
+     * Takes one token for the key.
+     *
+     * @return 0 if allowed, otherwise the nanoseconds until a token is available
+     */
+    public long tryAcquire(String key) {
+        AtomicLong bucket = buckets.get(key, NEW_BUCKET);
+        // nanos since construction, never negative, so a fresh bucket (0) starts full
+        long now = System.nanoTime() - origin;
+        while (true) {
+            long arrival = bucket.get();
+            long start = Math.max(arrival, now);
+            long ahead = start - now;
+            if (ahead > toleranceNanos) {
+                return ahead - toleranceNanos;
+            }
+            if (bucket.compareAndSet(arrival, start + periodNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    public long keyCount() {
+        return buckets.estimatedSize();
+    }
+}
@@ -0,0 +1,76 @@
+package com.vinodh.security.jwt.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/**
+ * Fixed-width SHA-256 digest of a token string. Used as a map key and as the stored
+ * form of a token, so the raw value never has to be kept around.
+ */
+public final class TokenDigest {
+
+    public static final int LENGTH = 32;
+
+    private static final MessageDigest SHA_256;
+
+    static {
+        try {
+            SHA_256 = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private final byte[] bytes;
+    private final int hash;
+
+    private TokenDigest(byte[] bytes) {
+        this.bytes = bytes;
+        // the digest is uniformly distributed, so its first four bytes make a good hash code
+        this.hash = (bytes[0] & 0xff) << 24 | (bytes[1] & 0xff) << 16 | (bytes[2] & 0xff) << 8 | (bytes[3] & 0xff);
+    }
+
+    public static TokenDigest of(String token) {
+        return new TokenDigest(sha256(token));
+    }
+
+    public static TokenDigest fromBytes(byte[] digest) {
+        if (digest == null || digest.length != LENGTH) {
+            throw new IllegalArgumentException("Expected a " + LENGTH + "-byte digest");
+        }
+        return new TokenDigest(digest.clone());
+    }
+
+    public static byte[] sha256(String token) {
+        MessageDigest digest;
+        try {
+            // cloning a prototype is cheaper than a provider lookup per call
+            digest = (MessageDigest) SHA_256.clone();
+        } catch (CloneNotSupportedException e) {
+            try {
+                digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException ex) {
+                throw new IllegalStateException("SHA-256 not available", ex);
+            }
+        }
+        return digest.digest(token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public byte[] toByteArray() {
+        return bytes.clone();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TokenDigest other)) return false;
+        return hash == other.hash && Arrays.equals(bytes, other.bytes);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+}
@@ -0,0 +1,61 @@
+package com.vinodh.security.jwt.util;
+
+/**
+ * Structural check of a compact JWS before any parsing or crypto: bounded length, exactly three
+ * non-empty segments, base64url characters only (no padding), and header and payload that decode to
+ * a JSON object. One pass over the chars, no allocation. Anything that fails here would fail the
+ * jjwt parse too, only much more expensively.
+ */
+public final class TokenShape {
+
+    // shortest header/payload that can start with {" encodes to at least 4 chars
+    private static final int MIN_LENGTH = 4 + 1 + 4 + 1 + 1;
+
+    private static final boolean[] BASE64URL = new boolean[128];
+
+    static {
+        for (char c = 'A'; c <= 'Z'; c++) {
+            BASE64URL[c] = true;
+        }
+        for (char c = 'a'; c <= 'z'; c++) {
+            BASE64URL[c] = true;
+        }
+        for (char c = '0'; c <= '9'; c++) {
+            BASE64URL[c] = true;
+        }
+        BASE64URL['-'] = true;
+        BASE64URL['_'] = true;
+    }
+
+    private TokenShape() {
+    }
+
+    public static boolean isPlausibleJws(String token, int maxLength) {
+        int length = token.length();
+        if (length < MIN_LENGTH || length > maxLength) {
+            return false;
+        }
+        // "eyJ" is base64url for '{"', how every JOSE header and JSON claims set begins
+        if (!token.startsWith("eyJ")) {
+            return false;
+        }
+        int dots = 0;
+        int segmentStart = 0;
+        for (int i = 0; i < length; i++) {
+            char c = token.charAt(i);
+            if (c == '.') {
+                if (i == segmentStart || ++dots > 2) {
+                    return false;
+                }
+                segmentStart = i + 1;
+                if (dots == 1 && !token.startsWith("eyJ", segmentStart)) {
+                    return false;
+                }
+            } else if (c >= 128 || !BASE64URL[c]) {
+                return false;
+            }
+        }
+        // unsigned tokens (empty third segment) are never accepted
+        return dots == 2 && segmentStart < length;
+    }
+}
@@ -0,0 +1,27 @@
+-- The schema as the last ddl-auto: update release left it. A database that already has these
+-- tables is baselined at this version instead of running it (spring.flyway.baseline-on-migrate);
+-- everything added since comes in V2 onwards. Written for MySQL; also runs on H2 in MySQL mode.
+
+CREATE TABLE user (
+    id          INTEGER      NOT NULL AUTO_INCREMENT,
+    first_name  VARCHAR(255),
+    last_name   VARCHAR(255),
+    email       VARCHAR(255),
+    password    VARCHAR(255),
+    role        TINYINT,
+    is_disabled BIT          NOT NULL,
+    PRIMARY KEY (id)
+);
+
+-- raw refresh tokens; replaced by digests in V5
+CREATE TABLE refresh_tokens (
+    id          BIGINT       NOT NULL AUTO_INCREMENT,
+    token       VARCHAR(255) NOT NULL,
+    user_id     INTEGER,
+    expiry_date DATETIME(6)  NOT NULL,
+    revoked     BIT          NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT ux_refresh_tokens_token UNIQUE (token),
+    CONSTRAINT ux_refresh_tokens_user_id UNIQUE (user_id),
+    CONSTRAINT fk_refresh_tokens_user FOREIGN KEY (user_id) REFERENCES user (id)
+);
@@ -0,0 +1,2 @@
+-- bumped on role/status/password changes; access tokens carrying an older value are rejected
+ALTER TABLE user ADD COLUMN token_version INTEGER NOT NULL DEFAULT 0;
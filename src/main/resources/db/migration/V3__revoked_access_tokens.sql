@@ -0,0 +1,8 @@
+-- access tokens revoked at logout, kept until their own expiry
+CREATE TABLE revoked_access_tokens (
+    id         BIGINT      NOT NULL AUTO_INCREMENT,
+    jti        VARCHAR(64) NOT NULL,
+    expires_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT ux_revoked_access_tokens_jti UNIQUE (jti)
+);
@@ -0,0 +1,3 @@
+-- keyset listing filtered by state or role; the role index also serves findByRole at startup
+CREATE INDEX idx_user_disabled_id ON user (is_disabled, id);
+CREATE INDEX idx_user_role_id ON user (role, id);
@@ -0,0 +1,14 @@
+-- Indexes for the hot lookups that had none.
+
+-- findByEmail / natural-id resolution: one row per email, and the email -> id lookup is answered
+-- from the index alone (InnoDB secondary indexes carry the primary key). Fails if duplicate emails
+-- exist; merge or remove those first.
+ALTER TABLE user MODIFY email VARCHAR(255) NOT NULL;
+CREATE UNIQUE INDEX ux_user_email ON user (email);
+
+-- refresh token purge: expiry_date < ? OR revoked = true, resolved as an index merge of the two
+CREATE INDEX idx_refresh_tokens_expiry_date ON refresh_tokens (expiry_date);
+CREATE INDEX idx_refresh_tokens_revoked ON refresh_tokens (revoked);
+
+-- revoked access token purge (expires_at < ?) and existence checks by jti + expiry
+CREATE INDEX idx_revoked_access_tokens_expires_at ON revoked_access_tokens (expires_at);
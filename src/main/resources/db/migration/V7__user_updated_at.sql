@@ -0,0 +1,5 @@
+-- Stamped by the database on every insert and update, so each node's known-email filter can poll for
+-- accounts created or renamed elsewhere. Ids alone miss renames, and ids can commit out of order.
+-- The entity does not map the column; only KnownEmailServiceImpl reads it.
+ALTER TABLE user ADD COLUMN updated_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3);
+CREATE INDEX idx_user_updated_at ON user (updated_at);
@@ -0,0 +1,4 @@
+-- Stamped by the database on insert, so other nodes can poll for revocations they have not seen.
+-- The id cursor this replaces skipped rows whose transaction committed after one with a higher id.
+ALTER TABLE revoked_access_tokens ADD COLUMN created_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3);
+CREATE INDEX idx_revoked_access_tokens_created_at ON revoked_access_tokens (created_at);
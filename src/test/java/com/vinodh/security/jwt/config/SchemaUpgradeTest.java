@@ -0,0 +1,98 @@
+package com.vinodh.security.jwt.config;
+
+import com.vinodh.security.jwt.SpringSecurityApplication;
+import com.vinodh.security.jwt.util.TokenDigest;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * An installation created by the last {@code ddl-auto: update} release is baselined at V1 and brought
+ * to the current schema by V2 onwards; the application then starts with {@code ddl-auto: validate}
+ * and the outstanding raw refresh token is usable as a digest.
+ */
+class SchemaUpgradeTest {
+
+    private static final String URL = "jdbc:h2:mem:upgrade;NON_KEYWORDS=USER;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    private static final String RESUME_URL = "jdbc:h2:mem:upgrade-resume;NON_KEYWORDS=USER;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    @Test
+    void preMigrationDatabaseIsBaselinedAndUpgraded() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(URL, "sa", "");
+        new ResourceDatabasePopulator(new ClassPathResource("db/pre-migration-schema.sql")).execute(dataSource);
+
+        // startup fails here if the migrated schema does not match the entities
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(SpringSecurityApplication.class).run(
+                "--spring.profiles.active=test",
+                "--spring.datasource.url=" + URL,
+                "--server.port=0",
+                // the JCache manager is JVM-wide: closing this context must not close it under the shared test context
+                "--spring.jpa.properties.hibernate.cache.use_second_level_cache=false")) {
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+            assertThat(jdbcTemplate.queryForList(
+                    "SELECT version FROM flyway_schema_history WHERE success AND version IS NOT NULL ORDER BY installed_rank",
+                    String.class))
+                    .containsExactly("1", "2", "3", "4", "5", "6", "7", "8");
+            // V1 itself did not run: the existing tables are the V1 schema
+            assertThat(jdbcTemplate.queryForObject(
+                    "SELECT type FROM flyway_schema_history WHERE version = '1'", String.class)).isEqualTo("BASELINE");
+            assertThat(jdbcTemplate.queryForObject(
+                    "SELECT token_version FROM user WHERE email = 'legacy@x.io'", Integer.class)).isZero();
+            assertThat(jdbcTemplate.queryForObject(
+                    "SELECT token_hash FROM refresh_tokens WHERE user_id = 1", byte[].class))
+                    .isEqualTo(TokenDigest.sha256("legacy-raw-token"));
+            assertThat(jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM information_schema.columns WHERE table_name = 'refresh_tokens' AND column_name = 'token'",
+                    Integer.class)).isZero();
+            // the Hibernate-named unique key on user_id still allows one token per user
+            assertThatThrownBy(() -> jdbcTemplate.update("INSERT INTO refresh_tokens (token_hash, user_id, expiry_date, revoked)"
+                    + " VALUES (?, 1, CURRENT_TIMESTAMP, FALSE)", (Object) TokenDigest.sha256("second-token")))
+                    .isInstanceOf(DataIntegrityViolationException.class);
+        }
+    }
+
+    // V5 runs outside a transaction, so a run cut short leaves its column and first batches behind
+    @Test
+    void interruptedHashMigrationResumes() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(RESUME_URL, "sa", "");
+        new ResourceDatabasePopulator(new ClassPathResource("db/pre-migration-schema.sql")).execute(dataSource);
+        JdbcTemplate setup = new JdbcTemplate(dataSource);
+        setup.update("INSERT INTO user (is_disabled, role, email, first_name, last_name, password)"
+                + " VALUES (FALSE, 0, 'second@x.io', 'Second', 'User', 'unused')");
+        setup.update("INSERT INTO refresh_tokens (revoked, user_id, expiry_date, token)"
+                + " VALUES (FALSE, 2, DATEADD('DAY', 7, CURRENT_TIMESTAMP), 'second-raw-token')");
+        // the column was added and the first row hashed; the index and the rest were not
+        setup.execute("ALTER TABLE refresh_tokens ADD COLUMN token_hash BINARY(32)");
+        setup.update("UPDATE refresh_tokens SET token_hash = ? WHERE user_id = 1", (Object) TokenDigest.sha256("legacy-raw-token"));
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(SpringSecurityApplication.class).run(
+                "--spring.profiles.active=test",
+                "--spring.datasource.url=" + RESUME_URL,
+                "--server.port=0",
+                "--spring.jpa.properties.hibernate.cache.use_second_level_cache=false")) {
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+            assertThat(jdbcTemplate.queryForObject(
+                    "SELECT token_hash FROM refresh_tokens WHERE user_id = 1", byte[].class))
+                    .isEqualTo(TokenDigest.sha256("legacy-raw-token"));
+            assertThat(jdbcTemplate.queryForObject(
+                    "SELECT token_hash FROM refresh_tokens WHERE user_id = 2", byte[].class))
+                    .isEqualTo(TokenDigest.sha256("second-raw-token"));
+            assertThat(jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM information_schema.indexes WHERE index_name = 'ux_refresh_tokens_token_hash'",
+                    Integer.class)).isEqualTo(1);
+            assertThat(jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM information_schema.columns WHERE table_name = 'refresh_tokens' AND column_name = 'token'",
+                    Integer.class)).isZero();
+        }
+    }
+}
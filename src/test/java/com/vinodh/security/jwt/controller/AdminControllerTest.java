@@ -0,0 +1,62 @@
+package com.vinodh.security.jwt.controller;
+
+import com.vinodh.security.jwt.dto.BulkUserRequest;
+import com.vinodh.security.jwt.exceptions.ErrorResponse;
+import com.vinodh.security.jwt.model.Role;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// a rejected bulk selection comes back as a 400 that says what is wrong with it
+@SpringBootTest
+@ActiveProfiles("test")
+class AdminControllerTest {
+
+    @Autowired
+    private AdminController controller;
+
+    @Test
+    void bulkRequestWithoutSelectorExplainsTheRejection() {
+        MockHttpServletRequest httpRequest = new MockHttpServletRequest("PATCH", "/api/v1/admin/users/bulk/status");
+
+        assertRejected(controller.bulkChangeStatus(true, new BulkUserRequest(), httpRequest),
+                "Exactly one of ids, emails or filter is required", "/api/v1/admin/users/bulk/status");
+    }
+
+    @Test
+    void bulkRequestWithTwoSelectorsExplainsTheRejection() {
+        BulkUserRequest request = new BulkUserRequest();
+        request.setIds(List.of(1));
+        request.setEmails(List.of("a@x.io"));
+        MockHttpServletRequest httpRequest = new MockHttpServletRequest("POST", "/api/v1/admin/users/bulk/delete");
+
+        assertRejected(controller.bulkDelete(request, httpRequest),
+                "Exactly one of ids, emails or filter is required", "/api/v1/admin/users/bulk/delete");
+    }
+
+    @Test
+    void bulkFilterWithoutCriterionExplainsTheRejection() {
+        BulkUserRequest request = new BulkUserRequest();
+        request.setFilter(new BulkUserRequest.Filter());
+        MockHttpServletRequest httpRequest = new MockHttpServletRequest("PATCH", "/api/v1/admin/users/bulk/role");
+
+        assertRejected(controller.bulkChangeRole(Role.ADMIN, request, httpRequest),
+                "Filter needs at least one criterion", "/api/v1/admin/users/bulk/role");
+    }
+
+    private static void assertRejected(ResponseEntity<?> response, String message, String path) {
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody()).isInstanceOfSatisfying(ErrorResponse.class, error -> {
+            assertThat(error.getMessage()).isEqualTo(message);
+            assertThat(error.getDetails()).isEqualTo(path);
+        });
+    }
+}
@@ -0,0 +1,84 @@
+package com.vinodh.security.jwt.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vinodh.security.jwt.dto.UserSummary;
+import com.vinodh.security.jwt.repository.IUserRepository;
+import com.vinodh.security.jwt.service.IJwtService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * The NDJSON user stream runs for as long as the table takes to read. Here Tomcat's own async timeout
+ * is cut to well below the time the stream takes, so the stream only completes because the
+ * application turns the MVC async timeout off. Own database, and no second-level cache because the
+ * JCache manager is JVM-wide.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:admin-stream;NON_KEYWORDS=USER;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false"
+})
+@ActiveProfiles("test")
+class AdminUserStreamTest {
+
+    private static final long CONTAINER_ASYNC_TIMEOUT_MS = 500;
+    private static final long STREAM_DELAY_MS = 3000;
+
+    @TestConfiguration
+    static class ShortContainerAsyncTimeout {
+
+        @Bean
+        WebServerFactoryCustomizer<TomcatServletWebServerFactory> shortAsyncTimeout() {
+            return factory -> factory.addConnectorCustomizers(connector -> connector.setAsyncTimeout(CONTAINER_ASYNC_TIMEOUT_MS));
+        }
+    }
+
+    @LocalServerPort
+    private int port;
+
+    // the stream serialises each user through it, so a spy can make the stream slow
+    @SpyBean
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private IUserRepository userRepository;
+
+    @Autowired
+    private IJwtService jwtService;
+
+    @Test
+    void streamOutlastingTheContainerAsyncTimeoutCompletes() throws Exception {
+        // a slow table read: the first user is written long after the container timeout
+        doAnswer(invocation -> {
+            Thread.sleep(STREAM_DELAY_MS);
+            return invocation.callRealMethod();
+        }).when(objectMapper).writeValueAsBytes(any(UserSummary.class));
+        String adminToken = jwtService.generateToken(userRepository.findByEmail("admin@vcti.io").orElseThrow());
+
+        HttpResponse<String> response = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/admin/users/stream"))
+                        .header("Authorization", "Bearer " + adminToken)
+                        .GET()
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.body()).contains("\"email\":\"admin@vcti.io\"").endsWith("\n");
+    }
+}
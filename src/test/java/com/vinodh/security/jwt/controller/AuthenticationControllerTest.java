@@ -0,0 +1,118 @@
+package com.vinodh.security.jwt.controller;
+
+import com.vinodh.security.jwt.dto.JwtAuthenticationResponse;
+import com.vinodh.security.jwt.dto.LoginRequest;
+import com.vinodh.security.jwt.dto.RefreshTokenRequest;
+import com.vinodh.security.jwt.dto.RegisterRequest;
+import com.vinodh.security.jwt.service.IAccessTokenRevocationService;
+import com.vinodh.security.jwt.service.IAuthenticationService;
+import com.vinodh.security.jwt.service.IJwtService;
+import com.vinodh.security.jwt.service.IRefreshTokenService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Logout revokes the presented access token only when it belongs to the owner of the refresh token,
+ * and a bearer value the filter would have turned away never reaches the JWT parser. The controller
+ * is called directly so the filter in front of it does not mask either case.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class AuthenticationControllerTest {
+
+    private static final String PASSWORD = "s3cret-pass";
+
+    @Autowired
+    private AuthenticationController controller;
+
+    @Autowired
+    private IAuthenticationService authenticationService;
+
+    @Autowired
+    private IRefreshTokenService refreshTokenService;
+
+    @Autowired
+    private IJwtService jwtService;
+
+    @Autowired
+    private IAccessTokenRevocationService accessTokenRevocationService;
+
+    @Test
+    void logoutRevokesOwnAccessToken() {
+        JwtAuthenticationResponse session = registerAndLogin("logout-own@x.io");
+
+        assertThat(controller.logout(refresh(session), "Bearer " + session.getAccessToken()).getStatusCode())
+                .isEqualTo(HttpStatus.OK);
+
+        assertThat(accessTokenRevoked(session)).isTrue();
+        assertThat(refreshTokenService.findByToken(session.getRefreshToken()).orElseThrow().isRevoked()).isTrue();
+    }
+
+    @Test
+    void logoutLeavesAnotherUsersAccessTokenAlone() {
+        JwtAuthenticationResponse mine = registerAndLogin("logout-mine@x.io");
+        JwtAuthenticationResponse theirs = registerAndLogin("logout-theirs@x.io");
+
+        assertThat(controller.logout(refresh(mine), "Bearer " + theirs.getAccessToken()).getStatusCode())
+                .isEqualTo(HttpStatus.OK);
+
+        assertThat(accessTokenRevoked(theirs)).isFalse();
+        assertThat(refreshTokenService.findByToken(mine.getRefreshToken()).orElseThrow().isRevoked()).isTrue();
+    }
+
+    @Test
+    void unknownRefreshTokenRevokesNothing() {
+        JwtAuthenticationResponse session = registerAndLogin("logout-unknown@x.io");
+        RefreshTokenRequest unknown = new RefreshTokenRequest();
+        unknown.setRefreshToken("no-such-refresh-token");
+
+        assertThatThrownBy(() -> controller.logout(unknown, "Bearer " + session.getAccessToken()))
+                .hasMessage("Refresh token not found");
+
+        assertThat(accessTokenRevoked(session)).isFalse();
+    }
+
+    @Test
+    void emptyOrGarbageBearerIsIgnored() {
+        JwtAuthenticationResponse session = registerAndLogin("logout-garbage@x.io");
+
+        assertThat(controller.logout(refresh(session), "Bearer ").getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        JwtAuthenticationResponse next = login("logout-garbage@x.io");
+        assertThat(controller.logout(refresh(next), "Bearer not.a.jws").getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(accessTokenRevoked(session)).isFalse();
+    }
+
+    private boolean accessTokenRevoked(JwtAuthenticationResponse session) {
+        return accessTokenRevocationService.isRevoked(jwtService.verifyToken(session.getAccessToken()));
+    }
+
+    private JwtAuthenticationResponse registerAndLogin(String email) {
+        RegisterRequest request = new RegisterRequest();
+        request.setFirstName("Logout");
+        request.setLastName("Test");
+        request.setEmail(email);
+        request.setPassword(PASSWORD);
+        authenticationService.register(request);
+        return login(email);
+    }
+
+    private JwtAuthenticationResponse login(String email) {
+        LoginRequest request = new LoginRequest();
+        request.setEmail(email);
+        request.setPassword(PASSWORD);
+        return authenticationService.login(request);
+    }
+
+    private static RefreshTokenRequest refresh(JwtAuthenticationResponse session) {
+        RefreshTokenRequest request = new RefreshTokenRequest();
+        request.setRefreshToken(session.getRefreshToken());
+        return request;
+    }
+}
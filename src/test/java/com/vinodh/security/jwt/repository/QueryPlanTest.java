@@ -0,0 +1,90 @@
+package com.vinodh.security.jwt.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The hot queries are answered from the indexes the migrations create. The context only starts if
+ * the migrated schema passes Hibernate validation, so this also covers a fresh install. Plans are
+ * H2's; each statement is the SQL the repository method issues, with literals for the parameters.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class QueryPlanTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void findByEmailUsesUniqueEmailIndex() {
+        assertThat(plan("SELECT id FROM user WHERE email = 'a@x.io'")).contains("ux_user_email");
+    }
+
+    @Test
+    void findByRoleUsesRoleIndex() {
+        assertThat(plan("SELECT * FROM user WHERE role = 1")).contains("idx_user_role_id");
+    }
+
+    @Test
+    void keysetListingUsesStateIndex() {
+        assertThat(plan("SELECT * FROM user WHERE id > 0 AND is_disabled = FALSE ORDER BY id LIMIT 100"))
+                .contains("idx_user_disabled_id");
+    }
+
+    @Test
+    void findByTokenHashUsesUniqueHashIndex() {
+        assertThat(plan("SELECT * FROM refresh_tokens WHERE token_hash = X'00'")).contains("ux_refresh_tokens_token_hash");
+    }
+
+    @Test
+    void findByUserUsesUserIndex() {
+        assertThat(plan("SELECT * FROM refresh_tokens WHERE user_id = 1")).contains("ux_refresh_tokens_user_id");
+    }
+
+    @Test
+    void bulkDeleteByUserUsesUserIndex() {
+        assertThat(plan("DELETE FROM refresh_tokens WHERE user_id IN (1, 2)")).contains("ux_refresh_tokens_user_id");
+    }
+
+    @Test
+    void knownEmailPollUsesStampIndex() {
+        assertThat(plan("SELECT id, email, updated_at FROM user WHERE updated_at >= TIMESTAMP '2030-01-01 00:00:00'"
+                + " AND (updated_at > TIMESTAMP '2030-01-01 00:00:00' OR id > 0) ORDER BY updated_at, id LIMIT 1000"))
+                .contains("idx_user_updated_at");
+    }
+
+    @Test
+    void revocationPollUsesCreatedAtIndex() {
+        assertThat(plan("SELECT * FROM revoked_access_tokens WHERE created_at >= TIMESTAMP '2030-01-01 00:00:00'"
+                + " AND (created_at > TIMESTAMP '2030-01-01 00:00:00' OR id > 0)"
+                + " AND expires_at > TIMESTAMP '2030-01-01 00:00:00' ORDER BY created_at, id LIMIT 1000"))
+                .contains("idx_revoked_access_tokens_created_at");
+    }
+
+    // H2 does not merge indexes for the purge's OR (MySQL does), so each arm is checked on its own
+    @Test
+    void purgeArmsUseExpiryAndRevokedIndexes() {
+        assertThat(plan("SELECT id FROM refresh_tokens WHERE expiry_date < TIMESTAMP '2030-01-01 00:00:00'"))
+                .contains("idx_refresh_tokens_expiry_date");
+        assertThat(plan("SELECT id FROM refresh_tokens WHERE revoked = TRUE")).contains("idx_refresh_tokens_revoked");
+    }
+
+    @Test
+    void revocationLookupAndPurgeUseIndexes() {
+        assertThat(plan("SELECT id FROM revoked_access_tokens WHERE jti = 'j' AND expires_at > TIMESTAMP '2030-01-01 00:00:00'"))
+                .contains("ux_revoked_access_tokens_jti");
+        assertThat(plan("DELETE FROM revoked_access_tokens WHERE expires_at < TIMESTAMP '2030-01-01 00:00:00'"))
+                .contains("idx_revoked_access_tokens_expires_at");
+    }
+
+    private String plan(String sql) {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+        assertThat(plan).as(sql).doesNotContain("tableScan");
+        return plan;
+    }
+}
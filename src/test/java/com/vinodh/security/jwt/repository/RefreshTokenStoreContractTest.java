@@ -0,0 +1,253 @@
+package com.vinodh.security.jwt.repository;
+
+import com.vinodh.security.jwt.model.RefreshToken;
+import com.vinodh.security.jwt.model.Role;
+import com.vinodh.security.jwt.model.User;
+import com.vinodh.security.jwt.model.VerifiedToken;
+import com.vinodh.security.jwt.service.IJwtService;
+import com.vinodh.security.jwt.service.IRefreshTokenService;
+import com.vinodh.security.jwt.service.IUserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Behaviour every {@link IRefreshTokenStore} must share, so switching {@code app.refreshTokenStore.type}
+ * changes latency and durability but nothing a caller can observe. Each implementation's test extends
+ * this with a context running that store, and supplies the store.
+ */
+public abstract class RefreshTokenStoreContractTest {
+
+    // whole milliseconds, so a round trip through a TIMESTAMP column compares equal
+    private static final Instant LATER = Instant.now().plus(1, ChronoUnit.DAYS).truncatedTo(ChronoUnit.MILLIS);
+    private static final Instant EARLIER = Instant.now().minus(1, ChronoUnit.DAYS).truncatedTo(ChronoUnit.MILLIS);
+
+    @Autowired
+    private IUserRepository userRepository;
+
+    @Autowired
+    private IUserService userService;
+
+    @Autowired
+    private IRefreshTokenService refreshTokenService;
+
+    @Autowired
+    private IJwtService jwtService;
+
+    protected abstract IRefreshTokenStore store();
+
+    // purge counts must not see tokens left by other tests: everything is expired as of far enough ahead
+    @BeforeEach
+    void emptyStore() {
+        store().purgeExpiredAndRevoked(LATER.plus(3650, ChronoUnit.DAYS), Integer.MAX_VALUE);
+    }
+
+    @Test
+    void savedTokenIsFoundByDigest() {
+        User user = newUser();
+        RefreshToken saved = store().save(token(user, LATER, false));
+
+        assertThat(saved.getId()).isNotNull();
+        RefreshToken found = store().findByTokenHash(saved.getTokenHash()).orElseThrow();
+        assertThat(found.getId()).isEqualTo(saved.getId());
+        assertThat(found.getTokenHash()).isEqualTo(saved.getTokenHash());
+        assertThat(found.getUser().getId()).isEqualTo(user.getId());
+        assertThat(found.getExpiryDate()).isEqualTo(LATER);
+        assertThat(found.isRevoked()).isFalse();
+        // only the digest is stored
+        assertThat(found.getToken()).isNull();
+    }
+
+    @Test
+    void unknownDigestIsEmpty() {
+        assertThat(store().findByTokenHash(token(newUser(), LATER, false).getTokenHash())).isEmpty();
+    }
+
+    @Test
+    void savedTokenIsFoundByUser() {
+        User user = newUser();
+        RefreshToken saved = store().save(token(user, LATER, false));
+
+        assertThat(store().findByUser(user).orElseThrow().getId()).isEqualTo(saved.getId());
+        assertThat(store().findByUser(newUser())).isEmpty();
+    }
+
+    // login rotates the user's one token in place: the old value stops working
+    @Test
+    void rotatedTokenReplacesTheOldDigest() {
+        User user = newUser();
+        RefreshToken saved = store().save(token(user, LATER, false));
+
+        RefreshToken rotated = store().findByUser(user).orElseThrow();
+        rotated.setToken(UUID.randomUUID().toString());
+        store().save(rotated);
+
+        assertThat(store().findByTokenHash(saved.getTokenHash())).isEmpty();
+        assertThat(store().findByTokenHash(rotated.getTokenHash()).orElseThrow().getId()).isEqualTo(saved.getId());
+    }
+
+    @Test
+    void changesToAFoundTokenOnlyLandWhenSaved() {
+        RefreshToken saved = store().save(token(newUser(), LATER, false));
+
+        store().findByTokenHash(saved.getTokenHash()).orElseThrow().setRevoked(true);
+        assertThat(store().findByTokenHash(saved.getTokenHash()).orElseThrow().isRevoked()).isFalse();
+
+        RefreshToken found = store().findByTokenHash(saved.getTokenHash()).orElseThrow();
+        found.setRevoked(true);
+        store().save(found);
+        assertThat(store().findByTokenHash(saved.getTokenHash()).orElseThrow().isRevoked()).isTrue();
+    }
+
+    @Test
+    void deletedTokenIsGone() {
+        RefreshToken saved = store().save(token(newUser(), LATER, false));
+
+        store().delete(store().findByTokenHash(saved.getTokenHash()).orElseThrow());
+
+        assertThat(store().findByTokenHash(saved.getTokenHash())).isEmpty();
+    }
+
+    @Test
+    void revokeAllForUsersCountsAndRevokesOnlyLiveTokensOfThoseUsers() {
+        User first = newUser();
+        User second = newUser();
+        User other = newUser();
+        RefreshToken live = store().save(token(first, LATER, false));
+        RefreshToken alreadyRevoked = store().save(token(second, LATER, true));
+        RefreshToken untouched = store().save(token(other, LATER, false));
+        List<Integer> userIds = List.of(first.getId(), second.getId());
+
+        assertThat(store().revokeAllForUsers(userIds)).isEqualTo(1);
+
+        assertThat(store().findByTokenHash(live.getTokenHash()).orElseThrow().isRevoked()).isTrue();
+        assertThat(store().findByTokenHash(alreadyRevoked.getTokenHash()).orElseThrow().isRevoked()).isTrue();
+        assertThat(store().findByTokenHash(untouched.getTokenHash()).orElseThrow().isRevoked()).isFalse();
+        assertThat(store().revokeAllForUsers(userIds)).isZero();
+        assertThat(store().revokeAllForUsers(List.of())).isZero();
+    }
+
+    @Test
+    void revokedTokenStaysRevokedWhenACopyFoundEarlierIsSaved() {
+        User user = newUser();
+        RefreshToken saved = store().save(token(user, LATER, false));
+        RefreshToken foundBefore = store().findByTokenHash(saved.getTokenHash()).orElseThrow();
+
+        store().revokeAllForUsers(List.of(user.getId()));
+
+        assertThat(foundBefore.isRevoked()).isFalse();
+        assertThat(store().findByTokenHash(saved.getTokenHash()).orElseThrow().isRevoked()).isTrue();
+    }
+
+    @Test
+    void deleteAllForUsersRemovesOnlyThoseUsersTokens() {
+        User first = newUser();
+        User second = newUser();
+        User other = newUser();
+        RefreshToken live = store().save(token(first, LATER, false));
+        RefreshToken revoked = store().save(token(second, LATER, true));
+        RefreshToken untouched = store().save(token(other, LATER, false));
+        List<Integer> userIds = List.of(first.getId(), second.getId());
+
+        assertThat(store().deleteAllForUsers(userIds)).isEqualTo(2);
+
+        assertThat(store().findByTokenHash(live.getTokenHash())).isEmpty();
+        assertThat(store().findByTokenHash(revoked.getTokenHash())).isEmpty();
+        assertThat(store().findByUser(first)).isEmpty();
+        assertThat(store().findByTokenHash(untouched.getTokenHash())).isPresent();
+        assertThat(store().deleteAllForUsers(userIds)).isZero();
+        assertThat(store().deleteAllForUsers(List.of())).isZero();
+    }
+
+    @Test
+    void purgeRemovesExpiredAndRevokedTokensUpToTheLimit() {
+        RefreshToken expired = store().save(token(newUser(), EARLIER, false));
+        RefreshToken revoked = store().save(token(newUser(), LATER, true));
+        RefreshToken live = store().save(token(newUser(), LATER, false));
+        Instant now = Instant.now();
+
+        assertThat(store().purgeExpiredAndRevoked(now, 1)).isEqualTo(1);
+        assertThat(store().purgeExpiredAndRevoked(now, 10)).isEqualTo(1);
+        assertThat(store().purgeExpiredAndRevoked(now, 10)).isZero();
+
+        assertThat(store().findByTokenHash(expired.getTokenHash())).isEmpty();
+        assertThat(store().findByTokenHash(revoked.getTokenHash())).isEmpty();
+        assertThat(store().findByTokenHash(live.getTokenHash())).isPresent();
+    }
+
+    @Test
+    void purgeTakesBulkRevokedTokensInSlicesOfTheLimit() {
+        List<Integer> revokedUserIds = new ArrayList<>();
+        List<RefreshToken> revoked = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            User user = newUser();
+            revokedUserIds.add(user.getId());
+            revoked.add(store().save(token(user, LATER, false)));
+        }
+        RefreshToken live = store().save(token(newUser(), LATER, false));
+        store().revokeAllForUsers(revokedUserIds);
+        Instant now = Instant.now();
+
+        assertThat(store().purgeExpiredAndRevoked(now, 2)).isEqualTo(2);
+        assertThat(store().purgeExpiredAndRevoked(now, 2)).isEqualTo(2);
+        assertThat(store().purgeExpiredAndRevoked(now, 2)).isEqualTo(1);
+        assertThat(store().purgeExpiredAndRevoked(now, 2)).isZero();
+
+        assertThat(revoked).allSatisfy(token -> assertThat(store().findByTokenHash(token.getTokenHash())).isEmpty());
+        assertThat(store().findByTokenHash(live.getTokenHash())).isPresent();
+    }
+
+    // stores keep only the owner's id, so a refresh signs the user as they are now, not as at login
+    @Test
+    void refreshSignsTheCurrentRoleAndTokenVersion() {
+        User user = newUser();
+        String refreshToken = store().save(token(user, LATER, false)).getToken();
+        User changes = new User();
+        changes.setRole(Role.ADMIN);
+        try {
+            User updated = userService.update(user.getId().longValue(), changes);
+
+            VerifiedToken accessToken = jwtService.verifyToken(refreshTokenService.refreshAccessToken(refreshToken).getAccessToken());
+
+            assertThat(accessToken.getRole()).isEqualTo(Role.ADMIN);
+            assertThat(accessToken.getTokenVersion()).isEqualTo(updated.getTokenVersion()).isGreaterThan(user.getTokenVersion());
+        } finally {
+            // application startup looks up the one ADMIN, so contexts started later on this database must not see a second
+            userService.delete(user.getId().longValue());
+        }
+    }
+
+    @Test
+    void refreshOfADisabledUserIsRejected() {
+        User user = newUser();
+        String refreshToken = store().save(token(user, LATER, false)).getToken();
+
+        userService.changeStatus(user.getEmail(), true);
+
+        assertThatThrownBy(() -> refreshTokenService.refreshAccessToken(refreshToken))
+                .hasMessageContaining("disabled");
+    }
+
+    private User newUser() {
+        User user = new User();
+        user.setFirstName("Store");
+        user.setLastName("Test");
+        user.setEmail("store-" + UUID.randomUUID() + "@x.io");
+        user.setPassword("unused");
+        user.setRole(Role.USER);
+        return userRepository.save(user);
+    }
+
+    private static RefreshToken token(User user, Instant expiryDate, boolean revoked) {
+        return new RefreshToken(UUID.randomUUID().toString(), user, expiryDate, revoked);
+    }
+}
@@ -0,0 +1,142 @@
+package com.vinodh.security.jwt.repository.impl;
+
+import com.vinodh.security.jwt.dto.BulkUserRequest;
+import com.vinodh.security.jwt.model.Role;
+import com.vinodh.security.jwt.model.User;
+import com.vinodh.security.jwt.repository.IUserRepository;
+import com.vinodh.security.jwt.service.IUserService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@code findByEmail} is answered from the second-level caches once a user has been loaded, and
+ * every way an admin changes or removes users keeps those caches from answering with stale data.
+ * Statement counts come from the Hibernate statistics the test profile turns on.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class IUserRepositoryCustomImplTest {
+
+    @Autowired
+    private IUserRepository userRepository;
+
+    @Autowired
+    private IUserService userService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void repeatLookupIssuesNoStatement() {
+        save("cached@x.io");
+        entityManagerFactory.getCache().evictAll();
+
+        statistics.clear();
+        assertThat(userRepository.findByEmail("cached@x.io")).isPresent();
+        assertThat(statistics.getPrepareStatementCount()).isPositive();
+
+        statistics.clear();
+        for (int i = 0; i < 3; i++) {
+            assertThat(userRepository.findByEmail("cached@x.io")).isPresent();
+        }
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getNaturalIdCacheHitCount()).isEqualTo(3);
+    }
+
+    @Test
+    void adminUpdateIsSeenByTheNextLookup() {
+        User user = warm(save("before-update@x.io"));
+        User payload = new User();
+        payload.setFirstName("Renamed");
+        payload.setEmail("after-update@x.io");
+
+        userService.update(user.getId().longValue(), payload);
+
+        assertThat(userRepository.findByEmail("before-update@x.io")).isEmpty();
+        assertThat(userRepository.findByEmail("after-update@x.io"))
+                .hasValueSatisfying(found -> assertThat(found.getFirstName()).isEqualTo("Renamed"));
+    }
+
+    @Test
+    void deleteIsSeenByTheNextLookup() {
+        User user = warm(save("deleted@x.io"));
+
+        userService.delete(user.getId().longValue());
+
+        assertThat(userRepository.findByEmail("deleted@x.io")).isEmpty();
+    }
+
+    @Test
+    void bulkStatusChangeEvictsAndIsReloaded() {
+        User user = warm(save("bulk-status@x.io"));
+
+        userService.bulkChangeStatus(byIds(user), true);
+
+        statistics.clear();
+        assertThat(userRepository.findByEmail("bulk-status@x.io"))
+                .hasValueSatisfying(found -> assertThat(found.getIsDisabled()).isTrue());
+        // the bulk UPDATE bypassed the entity cache, so the user comes from the database again
+        assertThat(statistics.getPrepareStatementCount()).isPositive();
+    }
+
+    @Test
+    void bulkRoleChangeEvictsAndIsReloaded() {
+        User user = warm(save("bulk-role@x.io"));
+
+        userService.bulkChangeRole(byIds(user), Role.ADMIN);
+
+        assertThat(userRepository.findByEmail("bulk-role@x.io"))
+                .hasValueSatisfying(found -> assertThat(found.getRole()).isEqualTo(Role.ADMIN));
+    }
+
+    @Test
+    void bulkDeleteIsSeenByTheNextLookup() {
+        User user = warm(save("bulk-delete@x.io"));
+
+        userService.bulkDelete(byIds(user));
+
+        assertThat(userRepository.findByEmail("bulk-delete@x.io")).isEmpty();
+    }
+
+    private User save(String email) {
+        User user = new User();
+        user.setFirstName("Cache");
+        user.setLastName("Test");
+        user.setEmail(email);
+        user.setPassword("unused");
+        user.setRole(Role.USER);
+        return userRepository.save(user);
+    }
+
+    // loaded once so the caches hold it, and confirmed to be served from them
+    private User warm(User user) {
+        userRepository.findByEmail(user.getEmail());
+        statistics.clear();
+        assertThat(userRepository.findByEmail(user.getEmail())).isPresent();
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        return user;
+    }
+
+    private static BulkUserRequest byIds(User user) {
+        BulkUserRequest request = new BulkUserRequest();
+        request.setIds(List.of(user.getId()));
+        return request;
+    }
+}
@@ -0,0 +1,26 @@
+package com.vinodh.security.jwt.repository.impl;
+
+import com.vinodh.security.jwt.repository.IRefreshTokenStore;
+import com.vinodh.security.jwt.repository.RefreshTokenStoreContractTest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+// a context of its own with the memory store behind the refresh-token service, on its own database. The
+// JCache manager is JVM-wide and keyed by entity id, so this context must not share the second-level cache.
+@SpringBootTest(properties = {
+        "app.refreshTokenStore.type=memory",
+        "spring.datasource.url=jdbc:h2:mem:memory-store;NON_KEYWORDS=USER;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false"
+})
+@ActiveProfiles("test")
+class InMemoryRefreshTokenStoreTest extends RefreshTokenStoreContractTest {
+
+    @Autowired
+    private InMemoryRefreshTokenStore store;
+
+    @Override
+    protected IRefreshTokenStore store() {
+        return store;
+    }
+}
@@ -0,0 +1,21 @@
+package com.vinodh.security.jwt.repository.impl;
+
+import com.vinodh.security.jwt.repository.IRefreshTokenStore;
+import com.vinodh.security.jwt.repository.RefreshTokenStoreContractTest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+// each store call runs on its own, outside any test transaction, as the service layer would see it
+@SpringBootTest
+@ActiveProfiles("test")
+class JpaRefreshTokenStoreTest extends RefreshTokenStoreContractTest {
+
+    @Autowired
+    private JpaRefreshTokenStore store;
+
+    @Override
+    protected IRefreshTokenStore store() {
+        return store;
+    }
+}
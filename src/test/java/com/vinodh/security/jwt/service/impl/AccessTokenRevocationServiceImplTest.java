@@ -0,0 +1,67 @@
+package com.vinodh.security.jwt.service.impl;
+
+import com.vinodh.security.jwt.model.VerifiedToken;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Revocations made by another node are simulated with plain SQL, and the poll is run by hand (the
+ * test profile only polls hourly). A revocation counts as seen by this node once {@code isRevoked}
+ * reports it: without a Bloom filter hit there is no database check.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class AccessTokenRevocationServiceImplTest {
+
+    @Autowired
+    private AccessTokenRevocationServiceImpl revocationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void revocationCommittedAfterAHigherIdIsStillSeen() {
+        Instant now = Instant.now();
+        // the higher id commits and is polled first
+        insertElsewhere(2_000_000, "committed-first", now);
+        revocationService.sync();
+        assertThat(revocationService.isRevoked(token("committed-first"))).isTrue();
+
+        // the lower id was stamped a moment earlier but its transaction committed only now
+        insertElsewhere(1_000_000, "committed-late", now.minusSeconds(2));
+        revocationService.sync();
+
+        assertThat(revocationService.isRevoked(token("committed-late"))).isTrue();
+    }
+
+    @Test
+    void tokenNobodyRevokedIsNotRevoked() {
+        revocationService.sync();
+
+        assertThat(revocationService.isRevoked(token("never-revoked"))).isFalse();
+    }
+
+    private void insertElsewhere(long id, String jti, Instant createdAt) {
+        jdbcTemplate.update("INSERT INTO revoked_access_tokens (id, jti, expires_at, created_at) VALUES (?, ?, ?, ?)",
+                id, jti, Timestamp.from(Instant.now().plus(Duration.ofHours(1))), Timestamp.from(createdAt));
+    }
+
+    private static VerifiedToken token(String jti) {
+        Claims claims = Jwts.claims();
+        claims.setId(jti);
+        claims.setExpiration(Date.from(Instant.now().plus(Duration.ofHours(1))));
+        return new VerifiedToken(claims);
+    }
+}
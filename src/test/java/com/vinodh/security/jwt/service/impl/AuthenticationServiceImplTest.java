@@ -0,0 +1,86 @@
+package com.vinodh.security.jwt.service.impl;
+
+import com.vinodh.security.jwt.dto.LoginRequest;
+import com.vinodh.security.jwt.dto.RegisterRequest;
+import com.vinodh.security.jwt.service.IAuthenticationService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * SQL issued per login: the user is loaded once, by the authentication provider, and the user's one
+ * refresh token is looked up and then inserted or rotated in place, in one transaction. Counts come
+ * from the Hibernate statistics the test profile turns on.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class AuthenticationServiceImplTest {
+
+    private static final String PASSWORD = "s3cret-pass";
+
+    @Autowired
+    private IAuthenticationService authenticationService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void coldLoginIsOneUserSelectOneTokenSelectAndOneInsert() {
+        register("cold-login@x.io");
+        // nothing cached: the user has to come from the database
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+
+        authenticationService.login(login("cold-login@x.io"));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+        assertThat(statistics.getEntityLoadCount()).isEqualTo(1);
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(1);
+        assertThat(statistics.getTransactionCount()).isEqualTo(1);
+    }
+
+    @Test
+    void repeatLoginRotatesTheRefreshTokenInPlace() {
+        register("warm-login@x.io");
+        authenticationService.login(login("warm-login@x.io"));
+        statistics.clear();
+
+        authenticationService.login(login("warm-login@x.io"));
+
+        // the token lookup and its update; the user comes from the principal cache
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityInsertCount()).isZero();
+        assertThat(statistics.getEntityUpdateCount()).isEqualTo(1);
+        assertThat(statistics.getTransactionCount()).isEqualTo(1);
+    }
+
+    private void register(String email) {
+        RegisterRequest request = new RegisterRequest();
+        request.setFirstName("Login");
+        request.setLastName("Test");
+        request.setEmail(email);
+        request.setPassword(PASSWORD);
+        authenticationService.register(request);
+    }
+
+    private static LoginRequest login(String email) {
+        LoginRequest request = new LoginRequest();
+        request.setEmail(email);
+        request.setPassword(PASSWORD);
+        return request;
+    }
+}
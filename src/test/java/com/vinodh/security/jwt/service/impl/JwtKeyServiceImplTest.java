@@ -0,0 +1,99 @@
+package com.vinodh.security.jwt.service.impl;
+
+import com.vinodh.security.jwt.SpringSecurityApplication;
+import com.vinodh.security.jwt.model.Role;
+import com.vinodh.security.jwt.model.User;
+import com.vinodh.security.jwt.model.VerifiedToken;
+import com.vinodh.security.jwt.service.IJwtKeyService;
+import com.vinodh.security.jwt.service.IJwtService;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Two application instances configured with the same keystore share a key ring: a token signed by
+ * one verifies on the other. An instance without the keystore signs with an ephemeral key that no
+ * other instance knows.
+ */
+class JwtKeyServiceImplTest {
+
+    private static final String PASSWORD = "changeit";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void tokenSignedByOneInstanceVerifiesOnAnother() throws Exception {
+        Path keystore = dir.resolve("jwt-keys.p12");
+        generateKey(keystore, "2026-01");
+
+        try (ConfigurableApplicationContext signer = start("node-a", keystore);
+             ConfigurableApplicationContext verifier = start("node-b", keystore)) {
+            String token = signer.getBean(IJwtService.class).generateToken(user());
+
+            assertThat(header(token)).contains("\"kid\":\"2026-01\"");
+            VerifiedToken verified = verifier.getBean(IJwtService.class).verifyToken(token);
+            assertThat(verified.getSubject()).isEqualTo("cross@x.io");
+            assertThat(verifier.getBean(IJwtKeyService.class).jwks())
+                    .isEqualTo(signer.getBean(IJwtKeyService.class).jwks());
+        }
+    }
+
+    @Test
+    void ephemeralKeyDoesNotVerifyElsewhere() throws Exception {
+        Path keystore = dir.resolve("jwt-keys.p12");
+        generateKey(keystore, "2026-01");
+
+        try (ConfigurableApplicationContext ephemeral = start("node-c", null);
+             ConfigurableApplicationContext verifier = start("node-d", keystore)) {
+            String token = ephemeral.getBean(IJwtService.class).generateToken(user());
+
+            assertThatThrownBy(() -> verifier.getBean(IJwtService.class).verifyToken(token))
+                    .isInstanceOf(JwtException.class);
+        }
+    }
+
+    private static ConfigurableApplicationContext start(String database, Path keystore) {
+        return new SpringApplicationBuilder(SpringSecurityApplication.class).run(
+                "--spring.profiles.active=test",
+                "--spring.datasource.url=jdbc:h2:mem:" + database + ";NON_KEYWORDS=USER;MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+                "--server.port=0",
+                // the JCache manager is JVM-wide: closing this context must not close it under the shared test context
+                "--spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+                "--app.jwt.keystore.paths=" + (keystore != null ? keystore : ""),
+                "--app.jwt.keystore.password=" + PASSWORD);
+    }
+
+    private static User user() {
+        User user = new User();
+        user.setId(42);
+        user.setEmail("cross@x.io");
+        user.setRole(Role.USER);
+        return user;
+    }
+
+    private static String header(String token) {
+        return new String(Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.'))), StandardCharsets.UTF_8);
+    }
+
+    // keytool ships with every JDK, so no certificate library is needed to build a PKCS12 key entry
+    private static void generateKey(Path keystore, String alias) throws Exception {
+        Path keytool = Path.of(System.getProperty("java.home"), "bin", "keytool");
+        Process process = new ProcessBuilder(keytool.toString(), "-genkeypair", "-alias", alias,
+                "-keyalg", "RSA", "-keysize", "2048", "-validity", "30", "-storetype", "PKCS12",
+                "-keystore", keystore.toString(), "-storepass", PASSWORD, "-dname", "CN=jwt")
+                .redirectErrorStream(true)
+                .start();
+        String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        assertThat(process.waitFor()).as(output).isZero();
+    }
+}
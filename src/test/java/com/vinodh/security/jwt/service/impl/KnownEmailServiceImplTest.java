@@ -0,0 +1,64 @@
+package com.vinodh.security.jwt.service.impl;
+
+import com.vinodh.security.jwt.service.IKnownEmailService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Writes made by another node are simulated with plain SQL, which this node's services never see.
+ * The test profile polls hourly, so anything found here was found by the catch-up poll that runs
+ * before a miss is answered.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class KnownEmailServiceImplTest {
+
+    @Autowired
+    private IKnownEmailService knownEmails;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void accountCreatedElsewhereIsKnownWithoutWaitingForThePoll() {
+        insertElsewhere("created-elsewhere@x.io");
+
+        assertThat(knownEmails.mightExist("created-elsewhere@x.io")).isTrue();
+        assertThat(knownEmails.mightExist("Created-Elsewhere@X.io")).isTrue();
+    }
+
+    @Test
+    void accountRenamedElsewhereIsKnownUnderItsNewEmail() throws InterruptedException {
+        insertElsewhere("before-rename@x.io");
+        assertThat(knownEmails.mightExist("before-rename@x.io")).isTrue();
+        Timestamp created = stamp("before-rename@x.io");
+
+        Thread.sleep(5);
+        jdbcTemplate.update("UPDATE user SET email = 'after-rename@x.io' WHERE email = 'before-rename@x.io'");
+
+        // the database re-stamps the row, so the rename is polled even after the overlap has passed
+        assertThat(stamp("after-rename@x.io")).isAfter(created);
+        assertThat(knownEmails.mightExist("after-rename@x.io")).isTrue();
+    }
+
+    @Test
+    void emailNobodyHasIsStillAMiss() {
+        assertThat(knownEmails.mightExist("nobody-has-this@x.io")).isFalse();
+    }
+
+    private Timestamp stamp(String email) {
+        return jdbcTemplate.queryForObject("SELECT updated_at FROM user WHERE email = ?", Timestamp.class, email);
+    }
+
+    private void insertElsewhere(String email) {
+        jdbcTemplate.update("INSERT INTO user (first_name, last_name, email, password, role, is_disabled, token_version)"
+                + " VALUES ('Other', 'Node', ?, 'unused', 0, FALSE, 0)", email);
+    }
+}
@@ -0,0 +1,95 @@
+package com.vinodh.security.jwt.service.impl;
+
+import com.vinodh.security.jwt.dto.JwtAuthenticationResponse;
+import com.vinodh.security.jwt.dto.LoginRequest;
+import com.vinodh.security.jwt.dto.RefreshTokenResponse;
+import com.vinodh.security.jwt.dto.RegisterRequest;
+import com.vinodh.security.jwt.service.IAuthenticationService;
+import com.vinodh.security.jwt.service.IRefreshTokenService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Concurrent refreshes of one token share a single flight: one store lookup and one minted access
+ * token, however many requests arrive together.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class RefreshTokenServiceImplTest {
+
+    private static final int PARALLEL_REFRESHES = 16;
+
+    @Autowired
+    private IRefreshTokenService refreshTokenService;
+
+    @Autowired
+    private IAuthenticationService authenticationService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void parallelRefreshesOfOneTokenDoOneLookup() throws Exception {
+        String refreshToken = registerAndLogin("parallel-refresh@x.io").getRefreshToken();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long lookupsBefore = lookups();
+        statistics.clear();
+
+        CyclicBarrier start = new CyclicBarrier(PARALLEL_REFRESHES);
+        ExecutorService executor = Executors.newFixedThreadPool(PARALLEL_REFRESHES);
+        List<Future<RefreshTokenResponse>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < PARALLEL_REFRESHES; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return refreshTokenService.refreshAccessToken(refreshToken);
+                }));
+            }
+            List<String> accessTokens = new ArrayList<>();
+            for (Future<RefreshTokenResponse> result : results) {
+                accessTokens.add(result.get().getAccessToken());
+            }
+
+            assertThat(accessTokens).doesNotContainNull().containsOnly(accessTokens.get(0));
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(lookups() - lookupsBefore).isEqualTo(1);
+        assertThat(statistics.getQueryExecutionCount()).isEqualTo(1);
+    }
+
+    private long lookups() {
+        return meterRegistry.get("auth.refresh.lookup").timer().count();
+    }
+
+    private JwtAuthenticationResponse registerAndLogin(String email) {
+        RegisterRequest register = new RegisterRequest();
+        register.setFirstName("Refresh");
+        register.setLastName("Test");
+        register.setEmail(email);
+        register.setPassword("s3cret-pass");
+        authenticationService.register(register);
+        LoginRequest login = new LoginRequest();
+        login.setEmail(email);
+        login.setPassword("s3cret-pass");
+        return authenticationService.login(login);
+    }
+}
@@ -0,0 +1,187 @@
+package com.vinodh.security.jwt.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.vinodh.security.jwt.dto.BulkItemResult;
+import com.vinodh.security.jwt.dto.BulkOperationResponse;
+import com.vinodh.security.jwt.dto.BulkUserRequest;
+import com.vinodh.security.jwt.model.Role;
+import com.vinodh.security.jwt.model.User;
+import com.vinodh.security.jwt.repository.IRefreshTokenStore;
+import com.vinodh.security.jwt.repository.IUserRepository;
+import com.vinodh.security.jwt.service.IRefreshTokenService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Bulk admin operations work one chunk at a time: a narrow SELECT, then one set-based statement on
+ * user and one on refresh_tokens for the rows that need the change. The chunk size is cut to two so a
+ * handful of users spans several chunks; statement counts come from the Hibernate statistics.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class UserServiceImplTest {
+
+    private static final int CHUNK_SIZE = 2;
+
+    @Autowired
+    private UserServiceImpl userService;
+
+    @Autowired
+    private IUserRepository userRepository;
+
+    @Autowired
+    private IRefreshTokenService refreshTokenService;
+
+    @Autowired
+    private IRefreshTokenStore refreshTokenStore;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Object configuredChunkSize;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        configuredChunkSize = ReflectionTestUtils.getField(userService, "bulkChunkSize");
+        ReflectionTestUtils.setField(userService, "bulkChunkSize", CHUNK_SIZE);
+    }
+
+    @AfterEach
+    void restoreChunkSize() {
+        ReflectionTestUtils.setField(userService, "bulkChunkSize", configuredChunkSize);
+    }
+
+    @Test
+    void bulkDisableIsThreeStatementsPerChunkAndRevokesRefreshTokens() {
+        List<User> users = usersWithRefreshTokens(4);
+        List<Integer> ids = new ArrayList<>(users.stream().map(User::getId).toList());
+        ids.add(Integer.MAX_VALUE);
+        statistics.clear();
+
+        BulkOperationResponse response = userService.bulkChangeStatus(byIds(ids), true);
+
+        // two chunks of two users: SELECT, UPDATE user, UPDATE refresh_tokens; then the unknown id alone: SELECT
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3 + 3 + 1);
+        assertThat(statistics.getTransactionCount()).isEqualTo(3);
+        assertThat(response.getMatched()).isEqualTo(4);
+        assertThat(response.getChanged()).isEqualTo(4);
+        assertThat(response.getUnchanged()).isZero();
+        assertThat(response.getNotFound()).isEqualTo(1);
+        assertThat(response.getRefreshTokensRevoked()).isEqualTo(4);
+        for (User before : users) {
+            User after = userRepository.findById(before.getId()).orElseThrow();
+            assertThat(after.getIsDisabled()).isTrue();
+            assertThat(after.getTokenVersion()).isEqualTo(before.getTokenVersion() + 1);
+            assertThat(refreshTokenStore.findByUser(after).orElseThrow().isRevoked()).isTrue();
+        }
+    }
+
+    @Test
+    void repeatedBulkDisableOnlySelects() {
+        List<Integer> ids = usersWithRefreshTokens(4).stream().map(User::getId).toList();
+        userService.bulkChangeStatus(byIds(ids), true);
+        statistics.clear();
+
+        BulkOperationResponse response = userService.bulkChangeStatus(byIds(ids), true);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(response.getChanged()).isZero();
+        assertThat(response.getUnchanged()).isEqualTo(4);
+        assertThat(response.getRefreshTokensRevoked()).isZero();
+    }
+
+    @Test
+    void bulkDeleteRemovesUsersAndTheirRefreshTokens() {
+        List<User> users = usersWithRefreshTokens(3);
+        statistics.clear();
+
+        BulkOperationResponse response = userService.bulkDelete(byIds(users.stream().map(User::getId).toList()));
+
+        // per chunk: SELECT, DELETE refresh_tokens, DELETE user
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3 + 3);
+        assertThat(response.getChanged()).isEqualTo(3);
+        assertThat(response.getRefreshTokensRevoked()).isEqualTo(3);
+        assertThat(response.getResults()).extracting(BulkItemResult::getStatus).containsOnly(BulkItemResult.Status.DELETED);
+        for (User user : users) {
+            assertThat(userRepository.findById(user.getId())).isEmpty();
+            assertThat(refreshTokenStore.findByUser(user)).isEmpty();
+        }
+    }
+
+    @Test
+    void emailsDifferingOnlyInCaseCountOnce() {
+        User user = usersWithRefreshTokens(1).get(0);
+        BulkUserRequest request = new BulkUserRequest();
+        request.setEmails(List.of(user.getEmail(), user.getEmail().toUpperCase(), "Nobody-" + user.getEmail()));
+
+        BulkOperationResponse response = userService.bulkChangeStatus(request, true);
+
+        assertThat(response.getMatched()).isEqualTo(1);
+        assertThat(response.getChanged()).isEqualTo(1);
+        assertThat(response.getNotFound()).isEqualTo(1);
+        assertThat(response.getRefreshTokensRevoked()).isEqualTo(1);
+        assertThat(response.getResults()).extracting(BulkItemResult::getKey)
+                .containsExactly(user.getEmail(), "nobody-" + user.getEmail());
+    }
+
+    @Test
+    void evictedTokenVersionsFallBackToTheDatabase() {
+        Object configuredMaxSize = ReflectionTestUtils.getField(userService, "minTokenVersionsMaxSize");
+        ReflectionTestUtils.setField(userService, "minTokenVersionsMaxSize", 1L);
+        userService.initMinTokenVersions();
+        try {
+            List<User> users = usersWithRefreshTokens(3);
+            int issued = users.get(0).getTokenVersion();
+            userService.bulkChangeStatus(byIds(users.stream().limit(2).map(User::getId).toList()), true);
+            ((Cache<?, ?>) ReflectionTestUtils.getField(userService, "minTokenVersions")).cleanUp();
+
+            // one of the two entries was evicted by size; both revocations still hold
+            assertThat(userService.isStaleTokenVersion(users.get(0).getId(), issued)).isTrue();
+            assertThat(userService.isStaleTokenVersion(users.get(1).getId(), issued)).isTrue();
+            assertThat(userService.isStaleTokenVersion(users.get(0).getId(), issued + 1)).isFalse();
+            assertThat(userService.isStaleTokenVersion(users.get(2).getId(), issued)).isFalse();
+            assertThat(userService.isStaleTokenVersion(Integer.MAX_VALUE, issued)).isTrue();
+        } finally {
+            ReflectionTestUtils.setField(userService, "minTokenVersionsMaxSize", configuredMaxSize);
+            userService.initMinTokenVersions();
+        }
+    }
+
+    private List<User> usersWithRefreshTokens(int count) {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            User user = new User();
+            user.setFirstName("Bulk");
+            user.setLastName("Test");
+            user.setEmail("bulk-" + UUID.randomUUID() + "@x.io");
+            user.setPassword("unused");
+            user.setRole(Role.USER);
+            User saved = userRepository.save(user);
+            refreshTokenService.createOrReuseRefreshToken(saved);
+            users.add(saved);
+        }
+        return users;
+    }
+
+    private static BulkUserRequest byIds(List<Integer> ids) {
+        BulkUserRequest request = new BulkUserRequest();
+        request.setIds(ids);
+        return request;
+    }
+}
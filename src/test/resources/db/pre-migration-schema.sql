@@ -0,0 +1,12 @@
+-- A database as the last ddl-auto: update release left it: Hibernate's DDL and constraint names,
+-- no flyway_schema_history. One user with one raw refresh token.
+create table user (is_disabled bit not null, id integer not null auto_increment, role tinyint check (role between 0 and 1), email varchar(255), first_name varchar(255), last_name varchar(255), password varchar(255), primary key (id));
+create table refresh_tokens (revoked bit not null, user_id integer, expiry_date datetime(6) not null, id bigint not null auto_increment, token varchar(255) not null, primary key (id));
+alter table refresh_tokens add constraint UK_r4k4edos30bx9neoq81mdvwph unique (user_id);
+alter table refresh_tokens add constraint UK_ghpmfn23vmxfu3spu3lfg4r2d unique (token);
+alter table refresh_tokens add constraint FKjtx87i0jvq2svedphegvdwcuy foreign key (user_id) references user (id);
+
+insert into user (is_disabled, role, email, first_name, last_name, password)
+    values (false, 0, 'legacy@x.io', 'Legacy', 'User', '$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z6z1uZ1fP0wXo5C6n1aYqQ9K');
+insert into refresh_tokens (revoked, user_id, expiry_date, token)
+    values (false, 1, dateadd('DAY', 7, current_timestamp), 'legacy-raw-token');